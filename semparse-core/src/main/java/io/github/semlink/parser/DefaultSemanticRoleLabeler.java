@@ -17,10 +17,13 @@
 package io.github.semlink.parser;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -32,21 +35,38 @@ import io.github.semlink.app.Chunking;
 import io.github.semlink.app.ShallowParser;
 import io.github.semlink.app.ShallowParserUtils;
 import io.github.semlink.type.ITokenSequence;
-import lombok.AllArgsConstructor;
 import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
 
 /**
  * Default {@link SemanticRoleLabeler} implementation.
  *
  * @author jgung
  */
-@AllArgsConstructor
+@Accessors(fluent = true)
 public class DefaultSemanticRoleLabeler<A> implements SemanticRoleLabeler<A> {
 
+    private static final int DEFAULT_MAX_BATCH_SIZE = 32;
+
     private ShallowParser shallowParser;
     private Function<String, A> argMapper;
     private Function<NlpFocus<DepNode, DepTree>, ITokenSequence> inputAdapter;
 
+    /**
+     * Maximum number of predicates passed to the shallow parser at once when labeling a batch of trees.
+     */
+    @Setter
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+    public DefaultSemanticRoleLabeler(@NonNull ShallowParser shallowParser,
+                                      @NonNull Function<String, A> argMapper,
+                                      @NonNull Function<NlpFocus<DepNode, DepTree>, ITokenSequence> inputAdapter) {
+        this.shallowParser = shallowParser;
+        this.argMapper = argMapper;
+        this.inputAdapter = inputAdapter;
+    }
+
     /**
      * Initialize a semantic role labeler that maps output of a shallow parser to a given argument type using a provided mapping
      * function.
@@ -65,18 +85,73 @@ public class DefaultSemanticRoleLabeler<A> implements SemanticRoleLabeler<A> {
         }
 
         // (1) map dependency parse tree to an input sequence of features given each predicate
-        List<ITokenSequence> featsGivenPredicate = indices.stream()
+        List<ITokenSequence> featsGivenPredicate = inputs(tree, indices);
+
+        // (2) apply shallow parser to feature inputs as a single batch
+        List<Chunking<String>> chunkings = shallowParser.shallowParseBatch(featsGivenPredicate);
+
+        // (3) map batched predictions to each input proposition
+        return propositions(tree, indices, chunkings);
+    }
+
+    @Override
+    public CompletableFuture<List<Proposition<DepNode, A>>> parseAsync(@NonNull DepTree tree,
+                                                                       @NonNull List<Integer> indices) {
+        if (indices.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        return shallowParser.shallowParseBatchAsync(inputs(tree, indices))
+                .thenApply(chunkings -> propositions(tree, indices, chunkings));
+    }
+
+    /**
+     * Label the predicates of all input trees together, in batches of up to {@link #maxBatchSize} predicates which may span
+     * several trees.
+     */
+    @Override
+    public List<List<Proposition<DepNode, A>>> parseBatch(@NonNull List<DepTree> trees,
+                                                         @NonNull List<List<Integer>> predicates) {
+        Preconditions.checkArgument(trees.size() == predicates.size(),
+                "Number of trees and predicate lists do not match: %s vs. %s", trees.size(), predicates.size());
+        Preconditions.checkState(maxBatchSize > 0, "Maximum batch size must be positive: %s", maxBatchSize);
+
+        // (1) map each tree to inputs for each of its predicates, flattened across trees
+        List<ITokenSequence> inputs = new ArrayList<>();
+        for (int i = 0; i < trees.size(); ++i) {
+            inputs.addAll(inputs(trees.get(i), predicates.get(i)));
+        }
+
+        // (2) apply shallow parser to size-capped batches of inputs
+        List<Chunking<String>> chunkings = new ArrayList<>(inputs.size());
+        for (List<ITokenSequence> batch : Lists.partition(inputs, maxBatchSize)) {
+            chunkings.addAll(shallowParser.shallowParseBatch(batch));
+        }
+
+        // (3) map predictions back to the propositions of each tree
+        List<List<Proposition<DepNode, A>>> result = new ArrayList<>(trees.size());
+        int start = 0;
+        for (int i = 0; i < trees.size(); ++i) {
+            List<Integer> indices = predicates.get(i);
+            result.add(propositions(trees.get(i), indices, chunkings.subList(start, start + indices.size())));
+            start += indices.size();
+        }
+        return result;
+    }
+
+    private List<ITokenSequence> inputs(DepTree tree, List<Integer> indices) {
+        return indices.stream()
                 .map(predicate -> new DefaultNlpFocus<>(predicate, tree.get(predicate), tree))
                 .map(inputAdapter)
                 .collect(Collectors.toList());
+    }
 
-        // (2) apply shallow parser to feature inputs as a single batch
-        List<Chunking<A>> chunkings = shallowParser.shallowParseBatch(featsGivenPredicate).stream()
+    private List<Proposition<DepNode, A>> propositions(DepTree tree, List<Integer> indices,
+                                                      List<Chunking<String>> parsed) {
+        List<Chunking<A>> chunkings = parsed.stream()
                 .map(chunks -> ShallowParserUtils.mapChunks(chunks, argMapper))
                 .collect(Collectors.toList());
         Preconditions.checkState(chunkings.size() == indices.size());
 
-        // (3) map batched predictions to each input proposition
         Iterator<Integer> senses = indices.iterator();
         return chunkings.stream()
                 .map(chunking -> {
@@ -16,6 +16,7 @@
 
 package io.github.semlink.parser;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
@@ -23,34 +24,40 @@ import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import io.github.clearwsd.DefaultSensePrediction;
 import io.github.clearwsd.SensePrediction;
 import io.github.clearwsd.type.DepNode;
 import io.github.clearwsd.type.DepTree;
 import io.github.clearwsd.type.FeatureType;
 import io.github.semlink.app.Span;
 import io.github.semlink.verbnet.VnClass;
-import lombok.AllArgsConstructor;
 import lombok.NonNull;
 
 /**
- * Default {@link VnPredicateDetector} implementation.
+ * Default {@link VnPredicateDetector} implementation. Token mappers are applied in order, one pass over the parse per mapper,
+ * with earlier mappers taking precedence. Consecutive {@link FilteredPredicateMapper FilteredPredicateMappers} are merged into a
+ * single {@link LemmaIndexedPredicateMapper}, applied in a single pass that skips tokens which already have a predicate, since
+ * these mappers only map a token to a predicate at the same token.
  *
  * @author jgung
  */
-@AllArgsConstructor
 public class DefaultVnPredicateDetector implements VnPredicateDetector {
 
     private VerbNetSenseClassifier verbNetClassifier;
     private PredicateMapper<VnClass> lightVerbMapper;
     private List<PredicateMapper<VnClass>> tokenMappers;
 
+    public DefaultVnPredicateDetector(@NonNull VerbNetSenseClassifier verbNetClassifier,
+                                      @NonNull PredicateMapper<VnClass> lightVerbMapper,
+                                      @NonNull List<PredicateMapper<VnClass>> tokenMappers) {
+        this.verbNetClassifier = verbNetClassifier;
+        this.lightVerbMapper = lightVerbMapper;
+        this.tokenMappers = compile(tokenMappers);
+    }
+
     @SafeVarargs
     public DefaultVnPredicateDetector(VerbNetSenseClassifier verbNetClassifier, PredicateMapper<VnClass> lightVerbMapper,
                                       PredicateMapper<VnClass>... predicateMappers) {
-        this.verbNetClassifier = verbNetClassifier;
-        this.lightVerbMapper = lightVerbMapper;
-        this.tokenMappers = Arrays.stream(predicateMappers).collect(Collectors.toList());
+        this(verbNetClassifier, lightVerbMapper, Arrays.asList(predicateMappers));
     }
 
     @Override
@@ -61,12 +68,13 @@ public class DefaultVnPredicateDetector implements VnPredicateDetector {
                 // TODO: VerbNet classifier should ideally have this kind of check
                 .filter(sense -> !depTree.get(sense.index()).feature(FeatureType.Dep).toString().equalsIgnoreCase("nmod"))
                 .collect(Collectors.toMap(SensePrediction::index, Function.identity()));
+        LemmaOverlay lemmas = new LemmaOverlay();
 
         for (SensePrediction<VnClass> sense : senses) {
             DepNode verb = depTree.get(sense.index());
 
             // map light verbs to nominal props
-            lightVerbMapper.mapPredicate(verb).map(span -> toSensePrediction(span, depTree))
+            lightVerbMapper.mapPredicate(verb, lemmas).map(span -> toSensePrediction(span, depTree, lemmas))
                     .ifPresent(prediction -> {
                         if (!predictions.containsKey(prediction.index())) {
                             predictions.put(prediction.index(), prediction);
@@ -75,13 +83,13 @@ public class DefaultVnPredicateDetector implements VnPredicateDetector {
         }
 
         for (PredicateMapper<VnClass> mapper : tokenMappers) {
+            boolean sameToken = mapper instanceof LemmaIndexedPredicateMapper;
             for (DepNode depNode : depTree) {
-                mapper.mapPredicate(depNode).map(span -> toSensePrediction(span, depTree))
-                        .ifPresent(prediction -> {
-                            if (!predictions.containsKey(prediction.index())) {
-                                predictions.put(prediction.index(), prediction);
-                            }
-                        });
+                if (sameToken && predictions.containsKey(depNode.index())) {
+                    continue;
+                }
+                mapper.mapPredicate(depNode, lemmas).map(span -> toSensePrediction(span, depTree, lemmas))
+                        .ifPresent(prediction -> predictions.putIfAbsent(prediction.index(), prediction));
             }
         }
 
@@ -90,12 +98,33 @@ public class DefaultVnPredicateDetector implements VnPredicateDetector {
                 .map(Map.Entry::getValue).collect(Collectors.toList());
     }
 
-    private static SensePrediction<VnClass> toSensePrediction(Span<VnClass> span, DepTree depTree) {
-        return new DefaultSensePrediction<>(span.startIndex(),
+    private static List<PredicateMapper<VnClass>> compile(List<PredicateMapper<VnClass>> mappers) {
+        List<PredicateMapper<VnClass>> result = new ArrayList<>();
+        List<FilteredPredicateMapper> filtered = new ArrayList<>();
+        for (PredicateMapper<VnClass> mapper : mappers) {
+            // subclasses may override mapPredicate, so only plain filtered mappers are merged
+            if (mapper.getClass() == FilteredPredicateMapper.class) {
+                filtered.add((FilteredPredicateMapper) mapper);
+                continue;
+            }
+            if (!filtered.isEmpty()) {
+                result.add(LemmaIndexedPredicateMapper.of(filtered));
+                filtered = new ArrayList<>();
+            }
+            result.add(mapper);
+        }
+        if (!filtered.isEmpty()) {
+            result.add(LemmaIndexedPredicateMapper.of(filtered));
+        }
+        return result;
+    }
+
+    private static SensePrediction<VnClass> toSensePrediction(Span<VnClass> span, DepTree depTree, LemmaOverlay lemmas) {
+        return new MappedSensePrediction(span.startIndex(),
                 span.get(depTree).stream()
                         .map(node -> (String) node.feature(FeatureType.Text))
                         .collect(Collectors.joining(" ")), span.label().verbNetId().classId(),
-                span.label());
+                span.label(), lemmas.lemma(depTree.get(span.startIndex())));
     }
 
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.parser;
+
+import java.util.function.Predicate;
+
+import io.github.clearwsd.type.DepNode;
+import io.github.clearwsd.type.FeatureType;
+import lombok.NonNull;
+
+/**
+ * Dependency node filters used to restrict {@link FilteredPredicateMapper FilteredPredicateMappers}. Filters compare features
+ * case-insensitively in place, without allocating upper-cased copies of each token's features.
+ *
+ * @author jgung
+ */
+public final class DepNodeFilters {
+
+    private DepNodeFilters() {
+    }
+
+    /**
+     * Filter matching nodes with a part-of-speech tag that starts with a given prefix, ignoring case.
+     *
+     * @param prefix POS tag prefix, e.g. "N" for nouns
+     * @return POS filter
+     */
+    public static Predicate<DepNode> posStartsWith(@NonNull String prefix) {
+        return node -> startsWithIgnoreCase(node.feature(FeatureType.Pos), prefix);
+    }
+
+    /**
+     * Filter matching nodes with a given dependency label, ignoring case.
+     *
+     * @param label dependency label, e.g. "compound"
+     * @return dependency label filter
+     */
+    public static Predicate<DepNode> depEquals(@NonNull String label) {
+        return node -> {
+            Object dep = node.feature(FeatureType.Dep);
+            return null != dep && dep.toString().equalsIgnoreCase(label);
+        };
+    }
+
+    private static boolean startsWithIgnoreCase(Object feature, String prefix) {
+        return null != feature && feature.toString().regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+}
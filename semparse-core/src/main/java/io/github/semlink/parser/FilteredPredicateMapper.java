@@ -26,7 +26,6 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import io.github.clearwsd.type.DepNode;
-import io.github.clearwsd.type.FeatureType;
 import io.github.semlink.app.Span;
 import io.github.semlink.verbnet.VnClass;
 import io.github.semlink.verbnet.VnIndex;
@@ -51,20 +50,27 @@ public class FilteredPredicateMapper implements PredicateMapper<VnClass> {
     private Predicate<DepNode> filter;
 
     @Override
-    public Optional<Span<VnClass>> mapPredicate(@NonNull DepNode child) {
+    public Optional<Span<VnClass>> mapPredicate(@NonNull DepNode child, @NonNull LemmaOverlay lemmas) {
         if (!filter.test(child)) {
             return Optional.empty();
         }
 
-        String lemma = child.feature(FeatureType.Lemma);
-        MappedMember member = mappings.get(lemma);
+        MappedMember member = mappings.get(lemmas.lemma(child));
         if (null != member) {
-            child.addFeature(FeatureType.Lemma, member.lemma);
+            lemmas.put(child.index(), member.lemma);
             return Optional.of(new Span<>(member.vnClass, child.index(), child.index()));
         }
         return Optional.empty();
     }
 
+    Map<String, MappedMember> mappings() {
+        return mappings;
+    }
+
+    Predicate<DepNode> filter() {
+        return filter;
+    }
+
     /**
      * Load mappings in the format: noun/adjective TAB verb TAB class, e.g. "adjustment   adjust  26.9".
      *
@@ -120,9 +126,9 @@ public class FilteredPredicateMapper implements PredicateMapper<VnClass> {
     }
 
     @AllArgsConstructor
-    private static class MappedMember {
-        private VnClass vnClass;
-        private String lemma;
+    static class MappedMember {
+        final VnClass vnClass;
+        final String lemma;
     }
 
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.parser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import io.github.clearwsd.type.DepNode;
+import io.github.semlink.app.Span;
+import io.github.semlink.parser.FilteredPredicateMapper.MappedMember;
+import io.github.semlink.verbnet.VnClass;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+
+/**
+ * {@link PredicateMapper} merging the mappings of several {@link FilteredPredicateMapper FilteredPredicateMappers} (e.g. nominal
+ * and adjectival mappings) into a single lemma-keyed index, so that each token needs only one lookup. Candidate mappings for
+ * a lemma are tried in the order of the original mappers, and the filter of a mapping is only applied to tokens with a
+ * matching lemma.
+ *
+ * @author jgung
+ */
+public class LemmaIndexedPredicateMapper implements PredicateMapper<VnClass> {
+
+    private final Map<String, List<FilteredMember>> index;
+
+    private LemmaIndexedPredicateMapper(Map<String, List<FilteredMember>> index) {
+        this.index = index;
+    }
+
+    @Override
+    public Optional<Span<VnClass>> mapPredicate(@NonNull DepNode rel, @NonNull LemmaOverlay lemmas) {
+        List<FilteredMember> members = index.get(lemmas.lemma(rel));
+        if (null == members) {
+            return Optional.empty();
+        }
+        for (FilteredMember member : members) {
+            if (member.filter.test(rel)) {
+                lemmas.put(rel.index(), member.member.lemma);
+                return Optional.of(new Span<>(member.member.vnClass, rel.index(), rel.index()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Merge a list of filtered predicate mappers into a single lemma-indexed mapper. The result maps each token to the same
+     * predicate as the first of the given mappers that applies to it.
+     *
+     * @param mappers filtered predicate mappers, in order of precedence
+     * @return merged predicate mapper
+     */
+    public static LemmaIndexedPredicateMapper of(@NonNull List<FilteredPredicateMapper> mappers) {
+        Map<String, List<FilteredMember>> index = new HashMap<>();
+        for (FilteredPredicateMapper mapper : mappers) {
+            for (Map.Entry<String, MappedMember> entry : mapper.mappings().entrySet()) {
+                index.computeIfAbsent(entry.getKey(), lemma -> new ArrayList<>(1))
+                        .add(new FilteredMember(entry.getValue(), mapper.filter()));
+            }
+        }
+        return new LemmaIndexedPredicateMapper(index);
+    }
+
+    @AllArgsConstructor
+    private static class FilteredMember {
+        private final MappedMember member;
+        private final Predicate<DepNode> filter;
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.parser;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.clearwsd.SensePrediction;
+import io.github.clearwsd.type.DepNode;
+import io.github.clearwsd.type.FeatureType;
+import lombok.NonNull;
+
+/**
+ * Per-parse lemma overrides applied on top of a dependency parse. Predicate mappers record the lemmas of mapped predicates
+ * (e.g. the verb lemma of a nominal predicate) here rather than modifying the {@link DepNode DepNodes} of the parse, so that a
+ * single parse can be processed repeatedly or by several threads at once.
+ *
+ * @author jgung
+ */
+public class LemmaOverlay {
+
+    private static final LemmaOverlay EMPTY = new LemmaOverlay(Collections.emptyMap());
+
+    private final Map<Integer, String> lemmas;
+
+    public LemmaOverlay() {
+        this(new HashMap<>());
+    }
+
+    private LemmaOverlay(Map<Integer, String> lemmas) {
+        this.lemmas = lemmas;
+    }
+
+    /**
+     * Return the lemma of a given node, preferring a lemma recorded in this overlay over the node's own lemma feature.
+     *
+     * @param node dependency node
+     * @return lemma of the node
+     */
+    public String lemma(@NonNull DepNode node) {
+        String lemma = lemmas.get(node.index());
+        return null != lemma ? lemma : node.feature(FeatureType.Lemma);
+    }
+
+    /**
+     * Record a lemma for the token at a given index.
+     *
+     * @param index token index
+     * @param lemma mapped lemma
+     * @return this overlay
+     */
+    public LemmaOverlay put(int index, @NonNull String lemma) {
+        lemmas.put(index, lemma);
+        return this;
+    }
+
+    /**
+     * Return an empty, read-only overlay.
+     */
+    public static LemmaOverlay empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Collect the lemmas recorded by any {@link MappedSensePrediction MappedSensePredictions} in a list of predicates.
+     *
+     * @param senses predicates with sense predictions
+     * @return overlay of mapped predicate lemmas
+     */
+    public static LemmaOverlay of(@NonNull List<? extends SensePrediction<?>> senses) {
+        Map<Integer, String> lemmas = new HashMap<>();
+        for (SensePrediction<?> sense : senses) {
+            if (sense instanceof MappedSensePrediction) {
+                lemmas.put(sense.index(), ((MappedSensePrediction) sense).lemma());
+            }
+        }
+        return lemmas.isEmpty() ? EMPTY : new LemmaOverlay(Collections.unmodifiableMap(lemmas));
+    }
+
+}
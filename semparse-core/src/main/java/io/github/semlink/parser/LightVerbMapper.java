@@ -22,7 +22,6 @@ import java.util.Map;
 import java.util.Optional;
 
 import io.github.clearwsd.type.DepNode;
-import io.github.clearwsd.type.FeatureType;
 import io.github.semlink.app.Span;
 import io.github.semlink.verbnet.VnClass;
 import io.github.semlink.verbnet.VnIndex;
@@ -46,19 +45,17 @@ public class LightVerbMapper implements PredicateMapper<VnClass> {
     private Map<String, Map<String, VnMember>> mappings;
 
     @Override
-    public Optional<Span<VnClass>> mapPredicate(@NonNull DepNode rel) {
-        String verb = rel.feature(FeatureType.Lemma);
+    public Optional<Span<VnClass>> mapPredicate(@NonNull DepNode rel, @NonNull LemmaOverlay lemmas) {
+        String verb = lemmas.lemma(rel);
         Map<String, VnMember> lvMappings = mappings.get(verb);
         if (null == lvMappings) {
             return Optional.empty();
         }
-        for (Map.Entry<String, VnMember> lemma : lvMappings.entrySet()) {
-            for (DepNode child : rel.children()) {
-                if (lemma.getKey().equals(child.feature(FeatureType.Lemma))) {
-                    // TODO: extract out this side effect (or update PropBank mapping logic to support nominal lemmas)
-                    child.addFeature(FeatureType.Lemma, lemma.getValue().lemma);
-                    return Optional.of(new Span<>(lemma.getValue().vnClass, child.index(), child.index()));
-                }
+        for (DepNode child : rel.children()) {
+            VnMember member = lvMappings.get(lemmas.lemma(child));
+            if (null != member) {
+                lemmas.put(child.index(), member.lemma);
+                return Optional.of(new Span<>(member.vnClass, child.index(), child.index()));
             }
         }
         return Optional.empty();
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.parser;
+
+import io.github.clearwsd.DefaultSensePrediction;
+import io.github.semlink.verbnet.VnClass;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+
+/**
+ * Sense prediction for a predicate produced by a {@link PredicateMapper}, such as a nominal or light verb construction, along
+ * with the verb lemma it was mapped to.
+ *
+ * @author jgung
+ */
+@Getter
+@Accessors(fluent = true)
+public class MappedSensePrediction extends DefaultSensePrediction<VnClass> {
+
+    private final String lemma;
+
+    public MappedSensePrediction(int index, String originalText, String id, VnClass sense, @NonNull String lemma) {
+        super(index, originalText, id, sense);
+        this.lemma = lemma;
+    }
+
+}
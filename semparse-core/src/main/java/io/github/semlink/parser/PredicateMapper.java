@@ -31,11 +31,23 @@ import lombok.NonNull;
 public interface PredicateMapper<T> {
 
     /**
-     * Map a given relation to a new span/sense for further analysis.
+     * Map a given relation to a new span/sense for further analysis. Lemmas are read through, and the lemmas of mapped predicates
+     * are recorded in, a given overlay, leaving the relation's parse unmodified.
+     *
+     * @param rel    predicate/relation
+     * @param lemmas per-parse lemma overlay
+     * @return optionally mapped span
+     */
+    Optional<Span<T>> mapPredicate(@NonNull DepNode rel, @NonNull LemmaOverlay lemmas);
+
+    /**
+     * Map a given relation to a new span/sense for further analysis, discarding any mapped lemmas.
      *
      * @param rel predicate/relation
      * @return optionally mapped span
      */
-    Optional<Span<T>> mapPredicate(@NonNull DepNode rel);
+    default Optional<Span<T>> mapPredicate(@NonNull DepNode rel) {
+        return mapPredicate(rel, new LemmaOverlay());
+    }
 
 }
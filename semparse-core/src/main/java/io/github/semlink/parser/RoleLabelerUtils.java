@@ -16,15 +16,24 @@
 
 package io.github.semlink.parser;
 
+import com.google.common.base.Stopwatch;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import io.github.clearwsd.type.DepNode;
 import io.github.clearwsd.type.DepTree;
 import io.github.clearwsd.type.FeatureType;
 import io.github.clearwsd.type.NlpFocus;
+import io.github.semlink.app.BatchingSequencePredictor;
+import io.github.semlink.app.SequencePredictor;
 import io.github.semlink.app.ShallowParser;
+import io.github.semlink.app.TensorflowModel;
+import io.github.semlink.app.TensorflowModelOptions;
+import io.github.semlink.parser.feat.BertSrlExampleExtractor;
 import io.github.semlink.type.Fields;
 import io.github.semlink.type.HasFields;
 import io.github.semlink.type.IToken;
@@ -34,20 +43,28 @@ import io.github.semlink.type.TokenSequence;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
 
 import static io.github.semlink.parser.feat.BertSrlExampleExtractor.bertFromDirectory;
+import static io.github.semlink.parser.feat.BertSrlExampleExtractor.srlExtractorFromDirectory;
 
 /**
  * Semantic role labeling utilities specific to our SRL system's input needs.
  *
  * @author jgung
  */
+@Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class RoleLabelerUtils {
 
     private static final String PREDICATE_INDEX_KEY = "predicate_index";
     private static final String WORD_KEY = "word";
 
+    private static final List<String> WARM_UP_WORDS = Arrays.asList("the", "analyst", "said", "that", "prices", "would",
+            "rise", "again", "in", "the", "next", "quarter", ",", "and", "investors", "agreed", ".");
+    private static final int[] WARM_UP_LENGTHS = {10, 24, 56, 120};
+    private static final int[] WARM_UP_BATCH_SIZES = {1, 8, 32};
+
     /**
      * Convert an {@link NlpFocus} to an {@link ITokenSequence} for use in feature extraction.
      */
@@ -62,6 +79,37 @@ public final class RoleLabelerUtils {
         return sequence;
     }
 
+    /**
+     * Create a synthetic SRL input of a given number of tokens, with the predicate at the middle of the sequence.
+     *
+     * @param length number of tokens
+     * @return synthetic input sequence
+     */
+    public static ITokenSequence syntheticSequence(int length) {
+        List<IToken> tokens = new ArrayList<>();
+        for (int i = 0; i < length; ++i) {
+            tokens.add(new Token(WARM_UP_WORDS.get(i % WARM_UP_WORDS.size()), i));
+        }
+        TokenSequence sequence = new TokenSequence(tokens);
+        sequence.add(PREDICATE_INDEX_KEY, length / 2);
+        return sequence;
+    }
+
+    /**
+     * Warm up a shallow semantic parser by running synthetic SRL inputs through it at several sentence lengths and batch sizes,
+     * covering the length buckets used during batching.
+     *
+     * @param parser shallow semantic parser
+     */
+    public static void warmUp(@NonNull ShallowParser parser) {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        List<ITokenSequence> sequences = Arrays.stream(WARM_UP_LENGTHS)
+                .mapToObj(RoleLabelerUtils::syntheticSequence)
+                .collect(Collectors.toList());
+        parser.warmUp(sequences, WARM_UP_BATCH_SIZES);
+        log.info("Warmed up shallow semantic parser in {}", stopwatch);
+    }
+
     /**
      * Populate features for a shallow semantic parser.
      *
@@ -90,4 +138,67 @@ public final class RoleLabelerUtils {
         return new ShallowParser(bertFromDirectory(modelDir), RoleLabelerUtils::shallowSemParseFeatures);
     }
 
+    /**
+     * Initialize a shallow semantic parser around a given predictor, such as a {@link RuleBasedSrlPredictor} stand-in for the
+     * Tensorflow model. The predictor receives word and predicate index features for each predicate.
+     *
+     * @param predictor sequence predictor producing BIO labels
+     * @return shallow semantic parser
+     */
+    public static ShallowParser shallowSemanticParser(@NonNull SequencePredictor<HasFields> predictor) {
+        return new ShallowParser(predictor, RoleLabelerUtils::shallowSemParseFeatures);
+    }
+
+    /**
+     * Initialize a shallow semantic parser from a Tensorflow model at a given directory. Inputs from concurrent callers are
+     * gathered into shared batches of up to a maximum size before being passed to the model.
+     *
+     * @param modelDir      Tensorflow saved model directory
+     * @param maxBatchSize  maximum number of inputs per batch, batching across callers is disabled if less than 2
+     * @param maxWaitMillis maximum time in milliseconds an input waits for other inputs before its batch is run
+     * @return shallow semantic parser
+     */
+    public static ShallowParser shallowSemanticParser(@NonNull String modelDir, int maxBatchSize, long maxWaitMillis) {
+        return shallowSemanticParser(modelDir, new TensorflowModelOptions(), maxBatchSize, maxWaitMillis);
+    }
+
+    /**
+     * Initialize a shallow semantic parser from a Tensorflow model at a given directory using given loading options. Inputs
+     * from concurrent callers are gathered into shared batches, with one batch in flight per loaded session.
+     *
+     * @param modelDir      Tensorflow saved model directory
+     * @param options       model loading options, such as session thread counts and number of sessions
+     * @param maxBatchSize  maximum number of inputs per batch, batching across callers is disabled if less than 2
+     * @param maxWaitMillis maximum time in milliseconds an input waits for other inputs before its batch is run
+     * @return shallow semantic parser
+     */
+    public static ShallowParser shallowSemanticParser(@NonNull String modelDir, @NonNull TensorflowModelOptions options,
+                                                      int maxBatchSize, long maxWaitMillis) {
+        return shallowSemanticParser(modelDir, options, maxBatchSize, maxWaitMillis, -1);
+    }
+
+    /**
+     * Initialize a shallow semantic parser from a Tensorflow model at a given directory using given loading options, as in
+     * {@link #shallowSemanticParser(String, TensorflowModelOptions, int, long)}. Sentences longer than a maximum number of
+     * wordpieces are restricted to a window centred on each predicate, and words outside of the window are left unlabeled.
+     *
+     * @param modelDir      Tensorflow saved model directory
+     * @param options       model loading options, such as session thread counts and number of sessions
+     * @param maxBatchSize  maximum number of inputs per batch, batching across callers is disabled if less than 2
+     * @param maxWaitMillis maximum time in milliseconds an input waits for other inputs before its batch is run
+     * @param maxWordPieces maximum number of wordpieces per input, or -1 for no limit
+     * @return shallow semantic parser
+     */
+    public static ShallowParser shallowSemanticParser(@NonNull String modelDir, @NonNull TensorflowModelOptions options,
+                                                      int maxBatchSize, long maxWaitMillis, int maxWordPieces) {
+        BertSrlExampleExtractor extractor = srlExtractorFromDirectory(modelDir);
+        extractor.setMaxWordPieces(maxWordPieces);
+        SequencePredictor<HasFields> predictor = TensorflowModel.fromDirectory(modelDir, extractor, options);
+        if (maxBatchSize > 1) {
+            predictor = new BatchingSequencePredictor<>(predictor, maxBatchSize, maxWaitMillis, TimeUnit.MILLISECONDS,
+                    options.sessions());
+        }
+        return new ShallowParser(predictor, RoleLabelerUtils::shallowSemParseFeatures, maxWordPieces < 0 ? null : extractor);
+    }
+
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.parser;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import io.github.semlink.app.SequencePredictor;
+import io.github.semlink.type.HasFields;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * Deterministic, pure-Java stand-in for the Tensorflow SRL model, used to exercise and benchmark components downstream of
+ * semantic role labeling without a native Tensorflow runtime. Labels are read from recorded fixtures when available, and
+ * otherwise produced by simple rules: the predicate is labeled V, words to its left up to the nearest clause boundary are
+ * labeled A0, and words to its right up to the nearest clause boundary are labeled A1.
+ *
+ * @author jgung
+ */
+@Getter
+@Setter
+@Accessors(fluent = true)
+public class RuleBasedSrlPredictor implements SequencePredictor<HasFields> {
+
+    private static final Set<String> BOUNDARIES = ImmutableSet.of(",", ";", ":", ".", "!", "?", "(", ")", "--");
+    private static final String OUTSIDE = "O";
+    private static final String BEGIN = "B-";
+    private static final String IN = "I-";
+
+    /**
+     * Word inputs key from feature extraction.
+     */
+    private String wordsKey = "word";
+    /**
+     * Indicates the original token index of the predicate.
+     */
+    private String predicateIndexKey = "predicate_index";
+    /**
+     * Artificial latency added to each batch, simulating the fixed cost of a session call.
+     */
+    private long batchLatencyMicros = 0;
+    /**
+     * Artificial latency added for each input in a batch.
+     */
+    private long inputLatencyMicros = 0;
+    /**
+     * Recorded labels, keyed by predicate index and input words.
+     */
+    private Map<String, List<String>> fixtures = new HashMap<>();
+
+    @Override
+    public List<String> predict(@NonNull HasFields input) {
+        return predictBatch(Collections.singletonList(input)).get(0);
+    }
+
+    @Override
+    public List<List<String>> predictBatch(@NonNull List<HasFields> inputs) {
+        sleep(batchLatencyMicros + inputLatencyMicros * inputs.size());
+        return inputs.stream()
+                .map(this::label)
+                .collect(Collectors.toList());
+    }
+
+    private List<String> label(HasFields input) {
+        List<String> words = input.field(wordsKey);
+        int predicateIndex = input.field(predicateIndexKey);
+
+        List<String> recorded = fixtures.get(fixtureKey(words, predicateIndex));
+        if (recorded != null) {
+            return recorded;
+        }
+
+        List<String> labels = new ArrayList<>(Collections.nCopies(words.size(), OUTSIDE));
+        labels.set(predicateIndex, BEGIN + "V");
+
+        int start = predicateIndex;
+        while (start > 0 && !BOUNDARIES.contains(words.get(start - 1))) {
+            --start;
+        }
+        for (int i = start; i < predicateIndex; ++i) {
+            labels.set(i, (i == start ? BEGIN : IN) + "A0");
+        }
+
+        int end = predicateIndex + 1;
+        while (end < words.size() && !BOUNDARIES.contains(words.get(end))) {
+            labels.set(end, (end == predicateIndex + 1 ? BEGIN : IN) + "A1");
+            ++end;
+        }
+        return labels;
+    }
+
+    /**
+     * Record labels to be returned for a given input.
+     *
+     * @param words          input words
+     * @param predicateIndex index of predicate
+     * @param labels         BIO labels, one per word
+     * @return this predictor
+     */
+    public RuleBasedSrlPredictor addFixture(@NonNull List<String> words, int predicateIndex, @NonNull List<String> labels) {
+        Preconditions.checkArgument(words.size() == labels.size(),
+                "Number of labels does not match number of words: %s vs. %s", labels.size(), words.size());
+        fixtures.put(fixtureKey(words, predicateIndex), labels);
+        return this;
+    }
+
+    /**
+     * Initialize a predictor with fixtures read from a tab-separated file, in which each line contains a predicate index,
+     * space-separated words, and space-separated BIO labels.
+     *
+     * @param path path to fixtures file
+     * @return rule-based predictor
+     */
+    public static RuleBasedSrlPredictor fromFixtures(@NonNull String path) {
+        RuleBasedSrlPredictor predictor = new RuleBasedSrlPredictor();
+        try {
+            for (String line : Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8)) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                Preconditions.checkState(fields.length == 3, "Expected 3 tab-separated fields, got: %s", line);
+                predictor.addFixture(Arrays.asList(fields[1].split(" ")), Integer.parseInt(fields[0]),
+                        Arrays.asList(fields[2].split(" ")));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read SRL fixtures at " + path, e);
+        }
+        return predictor;
+    }
+
+    private static String fixtureKey(List<String> words, int predicateIndex) {
+        return predicateIndex + "\t" + String.join(" ", words);
+    }
+
+    private static void sleep(long micros) {
+        if (micros <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MICROSECONDS.sleep(micros);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
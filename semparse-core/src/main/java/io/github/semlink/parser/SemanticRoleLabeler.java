@@ -16,9 +16,13 @@
 
 package io.github.semlink.parser;
 
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import io.github.clearwsd.SensePrediction;
@@ -45,6 +49,38 @@ public interface SemanticRoleLabeler<A> {
      */
     List<Proposition<DepNode, A>> parse(@NonNull DepTree tree, @NonNull List<Integer> predicates);
 
+    /**
+     * Asynchronously apply semantic role labeling to an input {@link DepTree dependency parse} with respect to a list of
+     * {@link SensePrediction predicates}.
+     *
+     * @param tree       input dependency parse tree
+     * @param predicates indices of predicates in the tree
+     * @return future of a list of propositions corresponding to role labels for each input predicate
+     */
+    default CompletableFuture<List<Proposition<DepNode, A>>> parseAsync(@NonNull DepTree tree,
+                                                                        @NonNull List<Integer> predicates) {
+        return CompletableFuture.supplyAsync(() -> parse(tree, predicates));
+    }
+
+    /**
+     * Apply semantic role labeling to a batch of {@link DepTree dependency parses}, each with its own list of predicates.
+     * Implementations may label the predicates of all trees together, rather than one tree at a time.
+     *
+     * @param trees      input dependency parse trees
+     * @param predicates indices of predicates in each tree
+     * @return a list of propositions for each input tree, corresponding to role labels for each of its predicates
+     */
+    default List<List<Proposition<DepNode, A>>> parseBatch(@NonNull List<DepTree> trees,
+                                                          @NonNull List<List<Integer>> predicates) {
+        Preconditions.checkArgument(trees.size() == predicates.size(),
+                "Number of trees and predicate lists do not match: %s vs. %s", trees.size(), predicates.size());
+        List<List<Proposition<DepNode, A>>> result = new ArrayList<>(trees.size());
+        for (int i = 0; i < trees.size(); ++i) {
+            result.add(parse(trees.get(i), predicates.get(i)));
+        }
+        return result;
+    }
+
     /**
      * Apply semantic role labeling to an input {@link DepTree dependency parse} with respect to a single {@link SensePrediction
      * predicate}.
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.parser;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import io.github.clearwsd.SensePrediction;
+import io.github.clearwsd.parser.NlpParser;
+import io.github.semlink.verbnet.VnClass;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streaming document parser that runs the stages of a {@link VerbNetParser} as a pipeline, so that dependency parsing, VerbNet
+ * classification, semantic role labeling, and alignment of different sentences overlap:
+ * <ol>
+ * <li>sentence segmentation, on a dedicated reader thread</li>
+ * <li>tokenization and dependency parsing, on a parsing thread pool</li>
+ * <li>VerbNet predicate detection and classification, on a classification thread pool</li>
+ * <li>semantic role labeling, on the role labeler's own inference threads</li>
+ * <li>alignment to VerbNet frames, on an alignment thread pool</li>
+ * </ol>
+ * The number of sentences in flight (queued, in progress, or completed but not yet consumed) is bounded, so the reader blocks
+ * when downstream stages or the consumer fall behind. Parses are returned in input order. A sentence that fails to parse is
+ * passed to an error handler and skipped, without ending the stream. Using more than one parsing or classification thread
+ * requires the underlying dependency parser and classifier to be thread-safe.
+ * <p>
+ * Returned streams must be closed, e.g. with try-with-resources, as a stream that is abandoned before it is exhausted leaves its
+ * reader thread blocked, holding up to the maximum number of sentences in flight:
+ * <pre>{@code
+ * try (Stream<VerbNetParse> parses = streamingParser.parse(documents)) {
+ *     parses.forEach(consumer);
+ * }
+ * }</pre>
+ *
+ * @author jgung
+ */
+@Slf4j
+public class StreamingVerbNetParser implements AutoCloseable {
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 256;
+
+    private static final PendingParse END = new PendingParse(null, CompletableFuture.completedFuture(null));
+
+    private final VerbNetParser parser;
+    private final ExecutorService parseExecutor;
+    private final ExecutorService classifyExecutor;
+    private final ExecutorService alignExecutor;
+    private final int maxInFlight;
+
+    /**
+     * Initialize a streaming parser around a given parser.
+     *
+     * @param parser          VerbNet parser
+     * @param parseThreads    number of dependency parsing threads
+     * @param classifyThreads number of VerbNet classification threads
+     * @param alignThreads    number of alignment threads
+     * @param maxInFlight     maximum number of sentences in the pipeline at once
+     */
+    public StreamingVerbNetParser(@NonNull VerbNetParser parser, int parseThreads, int classifyThreads, int alignThreads,
+                                  int maxInFlight) {
+        Preconditions.checkArgument(parseThreads > 0 && classifyThreads > 0 && alignThreads > 0,
+                "Number of threads per stage must be positive");
+        Preconditions.checkArgument(maxInFlight > 0, "Maximum number of sentences in flight must be positive: %s", maxInFlight);
+        this.parser = parser;
+        this.parseExecutor = executor(parseThreads, "verbnet-stream-parse-%d");
+        this.classifyExecutor = executor(classifyThreads, "verbnet-stream-classify-%d");
+        this.alignExecutor = executor(alignThreads, "verbnet-stream-align-%d");
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Initialize a streaming parser with a single parsing and classification thread and one alignment thread per processor.
+     *
+     * @param parser VerbNet parser
+     */
+    public StreamingVerbNetParser(@NonNull VerbNetParser parser) {
+        this(parser, 1, 1, Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Parse a stream of raw documents, each of which is segmented into sentences. Sentences that fail to parse are logged and
+     * skipped. The returned stream must be closed, which stops reading further documents.
+     *
+     * @param documents raw input documents
+     * @return VerbNet semantic parses for each sentence of each document, in input order
+     */
+    public Stream<VerbNetParse> parse(@NonNull Iterator<String> documents) {
+        return parse(documents, (input, error) -> log.warn("Unable to parse input: {}", input, error));
+    }
+
+    /**
+     * Parse a stream of raw documents, each of which is segmented into sentences. The returned stream must be closed, which stops
+     * reading further documents.
+     *
+     * @param documents    raw input documents
+     * @param errorHandler called on the consuming thread, in input order, with each sentence that fails to parse and its error.
+     *                     Receives a document that could not be segmented in place of its sentences, or a null input if
+     *                     documents could not be read
+     * @return VerbNet semantic parses for each successfully parsed sentence of each document, in input order
+     */
+    public Stream<VerbNetParse> parse(@NonNull Iterator<String> documents, @NonNull BiConsumer<String, Throwable> errorHandler) {
+        BlockingQueue<PendingParse> queue = new ArrayBlockingQueue<>(maxInFlight);
+        Thread reader = new Thread(() -> read(documents, queue), "verbnet-stream-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        Iterator<VerbNetParse> results = new AbstractIterator<VerbNetParse>() {
+            @Override
+            protected VerbNetParse computeNext() {
+                while (true) {
+                    PendingParse next;
+                    try {
+                        next = queue.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while waiting for parse", e);
+                    }
+                    if (next == END) {
+                        return endOfData();
+                    }
+                    try {
+                        return next.parse.join();
+                    } catch (CompletionException e) {
+                        errorHandler.accept(next.input, null != e.getCause() ? e.getCause() : e);
+                    }
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    reader.interrupt();
+                    // release sentences in flight
+                    queue.clear();
+                });
+    }
+
+    /**
+     * Parse a stream of raw documents read from a given reader, one document per line. The returned stream must be closed.
+     *
+     * @param reader document reader
+     * @return VerbNet semantic parses for each sentence of each document, in input order
+     */
+    public Stream<VerbNetParse> parse(@NonNull Reader reader) {
+        BufferedReader buffered = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        return parse(buffered.lines().iterator());
+    }
+
+    private void read(Iterator<String> documents, BlockingQueue<PendingParse> queue) {
+        NlpParser nlpParser = parser.getParser();
+        try {
+            try {
+                while (documents.hasNext()) {
+                    String document = documents.next();
+                    List<String> sentences;
+                    try {
+                        sentences = nlpParser.segment(document);
+                    } catch (RuntimeException e) {
+                        queue.put(failed(document, e));
+                        continue;
+                    }
+                    for (String sentence : sentences) {
+                        queue.put(new PendingParse(sentence, parse(sentence)));
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Error while reading documents", e);
+                queue.put(failed(null, e));
+            }
+            queue.put(END);
+        } catch (InterruptedException e) {
+            // stream was closed before all documents were read
+            log.debug("Stopped reading documents");
+        }
+    }
+
+    private CompletableFuture<VerbNetParse> parse(String sentence) {
+        NlpParser nlpParser = parser.getParser();
+        VnPredicateDetector predicateDetector = parser.getVnPredicateDetector();
+        return CompletableFuture.supplyAsync(() -> nlpParser.parse(nlpParser.tokenize(sentence)), parseExecutor)
+                .thenComposeAsync(tree -> {
+                    List<SensePrediction<VnClass>> senses = predicateDetector.detectPredicates(tree);
+                    return parser.parseAsync(tree, senses, alignExecutor);
+                }, classifyExecutor);
+    }
+
+    private static PendingParse failed(String input, RuntimeException error) {
+        CompletableFuture<VerbNetParse> failed = new CompletableFuture<>();
+        failed.completeExceptionally(error);
+        return new PendingParse(input, failed);
+    }
+
+    private static ExecutorService executor(int threads, String nameFormat) {
+        return Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+                .setNameFormat(nameFormat)
+                .setDaemon(true)
+                .build());
+    }
+
+    /**
+     * Input sentence (or document) and its future parse.
+     */
+    @AllArgsConstructor
+    private static class PendingParse {
+        private final String input;
+        private final CompletableFuture<VerbNetParse> parse;
+    }
+
+    @Override
+    public void close() {
+        parseExecutor.shutdown();
+        classifyExecutor.shutdown();
+        alignExecutor.shutdown();
+    }
+
+}
@@ -16,15 +16,22 @@
 
 package io.github.semlink.parser;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import io.github.clearwsd.SensePrediction;
 import io.github.clearwsd.parser.NlpParser;
 import io.github.clearwsd.type.DepTree;
 import io.github.clearwsd.type.FeatureType;
+import io.github.semlink.app.SequencePredictor;
+import io.github.semlink.app.TensorflowModelOptions;
 import io.github.semlink.propbank.type.PropBankArg;
 import io.github.semlink.semlink.VerbNetAligner;
+import io.github.semlink.type.HasFields;
 import io.github.semlink.verbnet.VnClass;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -65,7 +72,10 @@ public class VerbNetParser {
     public VerbNetParse parse(@NonNull DepTree parsed,
                               @NonNull List<SensePrediction<VnClass>> senses) {
         List<VerbNetProp> vnProps = verbNetRoleLabeler.extractProps(parsed, senses);
+        return toParse(parsed, vnProps);
+    }
 
+    private static VerbNetParse toParse(DepTree parsed, List<VerbNetProp> vnProps) {
         return new VerbNetParse()
                 .tokens(parsed.stream()
                         .map(node -> (String) node.feature(FeatureType.Text))
@@ -99,6 +109,97 @@ public class VerbNetParser {
         return parse(depTree);
     }
 
+    /**
+     * Generate {@link VerbNetParse VerbNetParses} from a batch of {@link DepTree dependency parses} for lists of specific
+     * verbs/predicates linked to VerbNet classes. The predicates of all parses are labeled together in shared batches before
+     * alignment to VerbNet frames.
+     *
+     * @param parsed dependency parses
+     * @param senses predicates (verbs) for each parse
+     * @return VerbNet semantic parses, in input order
+     */
+    public List<VerbNetParse> parseTreeBatch(@NonNull List<DepTree> parsed,
+                                             @NonNull List<List<SensePrediction<VnClass>>> senses) {
+        List<List<VerbNetProp>> vnProps = verbNetRoleLabeler.extractPropsBatch(parsed, senses);
+        List<VerbNetParse> result = new ArrayList<>(parsed.size());
+        for (int i = 0; i < parsed.size(); ++i) {
+            result.add(toParse(parsed.get(i), vnProps.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Generate {@link VerbNetParse VerbNetParses} from a batch of {@link DepTree dependency parses}. Performs VerbNet
+     * classification to identify predicates in each parse, then labels the predicates of all parses together in shared batches
+     * before alignment to VerbNet frames.
+     *
+     * @param parsed dependency parses
+     * @return VerbNet semantic parses, in input order
+     */
+    public List<VerbNetParse> parseTreeBatch(@NonNull List<DepTree> parsed) {
+        return parseTreeBatch(parsed, parsed.stream()
+                .map(vnPredicateDetector::detectPredicates)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Generate {@link VerbNetParse VerbNetParses} from a batch of raw, untokenized input sentences. Each sentence is
+     * dependency parsed and classified, then the predicates of all sentences are labeled together in shared batches before
+     * alignment to VerbNet frames.
+     *
+     * @param sentences raw input sentences
+     * @return VerbNet semantic parses, in input order
+     */
+    public List<VerbNetParse> parseBatch(@NonNull List<String> sentences) {
+        return parseTreeBatch(sentences.stream()
+                .map(sentence -> parser.parse(parser.tokenize(sentence)))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Asynchronously generate a {@link VerbNetParse} from a {@link DepTree dependency parse} for a list of specific
+     * verbs/predicates linked to VerbNet classes. Semantic role labeling runs on the role labeler's inference executor, and
+     * alignment to VerbNet frames runs on a given executor, so the calling thread is free to parse other sentences meanwhile.
+     *
+     * @param parsed            dependency parse
+     * @param senses            predicates (verbs)
+     * @param alignmentExecutor executor used for alignment to VerbNet frames
+     * @return future of VerbNet semantic parse
+     */
+    public CompletableFuture<VerbNetParse> parseAsync(@NonNull DepTree parsed,
+                                                      @NonNull List<SensePrediction<VnClass>> senses,
+                                                      @NonNull Executor alignmentExecutor) {
+        return verbNetRoleLabeler.extractPropsAsync(parsed, senses, alignmentExecutor)
+                .thenApply(vnProps -> toParse(parsed, vnProps));
+    }
+
+    /**
+     * Asynchronously generate a {@link VerbNetParse} from a {@link DepTree dependency parse}. VerbNet classification is performed
+     * on the calling thread, while semantic role labeling and alignment are performed asynchronously, with alignment on the
+     * common fork-join pool.
+     *
+     * @param parsed dependency parse
+     * @return future of VerbNet semantic parse
+     */
+    public CompletableFuture<VerbNetParse> parseAsync(@NonNull DepTree parsed) {
+        List<SensePrediction<VnClass>> senses = vnPredicateDetector.detectPredicates(parsed);
+        return parseAsync(parsed, senses, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Asynchronously generate a {@link VerbNetParse} from a raw, untokenized input sentence. Dependency parsing and VerbNet
+     * classification are performed on the calling thread, while semantic role labeling and alignment are performed
+     * asynchronously.
+     *
+     * @param sentence raw input sentence
+     * @return future of VerbNet semantic parse
+     */
+    public CompletableFuture<VerbNetParse> parseAsync(@NonNull String sentence) {
+        List<String> tokens = parser.tokenize(sentence);
+        DepTree depTree = parser.parse(tokens);
+        return parseAsync(depTree);
+    }
+
     /**
      * Instantiate a new {@link SemanticRoleLabeler} for PropBank from a given model path.
      */
@@ -106,4 +207,48 @@ public class VerbNetParser {
         return new DefaultSemanticRoleLabeler<>(RoleLabelerUtils.shallowSemanticParser(modelPath), PropBankArg::fromLabel);
     }
 
+    /**
+     * Instantiate a new {@link SemanticRoleLabeler} for PropBank around a given predictor, e.g. a {@link RuleBasedSrlPredictor}
+     * for benchmarking without Tensorflow.
+     */
+    public static SemanticRoleLabeler<PropBankArg> pbRoleLabeler(@NonNull SequencePredictor<HasFields> predictor) {
+        return new DefaultSemanticRoleLabeler<>(RoleLabelerUtils.shallowSemanticParser(predictor), PropBankArg::fromLabel);
+    }
+
+    /**
+     * Instantiate a new {@link SemanticRoleLabeler} for PropBank from a given model path, batching inputs across concurrent
+     * callers up to a given maximum batch size and wait time (in milliseconds).
+     */
+    public static SemanticRoleLabeler<PropBankArg> pbRoleLabeler(@NonNull String modelPath, int maxBatchSize,
+                                                                 long maxWaitMillis) {
+        return new DefaultSemanticRoleLabeler<>(
+                RoleLabelerUtils.shallowSemanticParser(modelPath, maxBatchSize, maxWaitMillis), PropBankArg::fromLabel);
+    }
+
+    /**
+     * Instantiate a new {@link SemanticRoleLabeler} for PropBank from a given model path and loading options, batching inputs
+     * across concurrent callers up to a given maximum batch size and wait time (in milliseconds).
+     */
+    public static SemanticRoleLabeler<PropBankArg> pbRoleLabeler(@NonNull String modelPath,
+                                                                 @NonNull TensorflowModelOptions options,
+                                                                 int maxBatchSize,
+                                                                 long maxWaitMillis) {
+        return pbRoleLabeler(modelPath, options, maxBatchSize, maxWaitMillis, -1);
+    }
+
+    /**
+     * Instantiate a new {@link SemanticRoleLabeler} for PropBank from a given model path and loading options, batching inputs
+     * across concurrent callers, and restricting long sentences to windows of at most a given number of wordpieces around each
+     * predicate.
+     */
+    public static SemanticRoleLabeler<PropBankArg> pbRoleLabeler(@NonNull String modelPath,
+                                                                 @NonNull TensorflowModelOptions options,
+                                                                 int maxBatchSize,
+                                                                 long maxWaitMillis,
+                                                                 int maxWordPieces) {
+        return new DefaultSemanticRoleLabeler<>(
+                RoleLabelerUtils.shallowSemanticParser(modelPath, options, maxBatchSize, maxWaitMillis, maxWordPieces),
+                PropBankArg::fromLabel);
+    }
+
 }
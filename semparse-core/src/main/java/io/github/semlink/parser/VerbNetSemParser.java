@@ -19,6 +19,8 @@ package io.github.semlink.parser;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -54,12 +56,58 @@ public class VerbNetSemParser {
      */
     public List<VerbNetProp> extractProps(@NonNull DepTree parsed,
                                           @NonNull List<SensePrediction<VnClass>> senses) {
-        Map<Integer, SensePrediction<VnClass>> sensesByIndex = senses.stream()
-                .collect(Collectors.toMap(SensePrediction::index, Function.identity()));
-
         List<Proposition<DepNode, PropBankArg>> props = roleLabeler.parse(parsed, senses.stream()
                 .map(SensePrediction::index)
                 .collect(Collectors.toList()));
+        return align(parsed, senses, props);
+    }
+
+    /**
+     * Asynchronously perform a shallow semantic parse on the input dependency parse for a given list of predicates. Semantic role
+     * labeling runs on the role labeler's inference executor, while alignment runs on a given executor, so that alignment does
+     * not hold up inference threads.
+     *
+     * @param parsed            dependency parse
+     * @param senses            predicates with sense predictions
+     * @param alignmentExecutor executor used for alignment to VerbNet frames
+     * @return future of extracted VerbNet propositions/shallow semantic parse
+     */
+    public CompletableFuture<List<VerbNetProp>> extractPropsAsync(@NonNull DepTree parsed,
+                                                                  @NonNull List<SensePrediction<VnClass>> senses,
+                                                                  @NonNull Executor alignmentExecutor) {
+        return roleLabeler.parseAsync(parsed, senses.stream()
+                .map(SensePrediction::index)
+                .collect(Collectors.toList()))
+                .thenApplyAsync(props -> align(parsed, senses, props), alignmentExecutor);
+    }
+
+    /**
+     * Perform a shallow semantic parse on a batch of dependency parses, each with its own list of predicates. Semantic role
+     * labeling is applied to the predicates of all parses together, before aligning each parse.
+     *
+     * @param parsed dependency parses
+     * @param senses predicates with sense predictions for each parse
+     * @return extracted VerbNet propositions for each parse
+     */
+    public List<List<VerbNetProp>> extractPropsBatch(@NonNull List<DepTree> parsed,
+                                                     @NonNull List<List<SensePrediction<VnClass>>> senses) {
+        List<List<Proposition<DepNode, PropBankArg>>> props = roleLabeler.parseBatch(parsed, senses.stream()
+                .map(predicates -> predicates.stream()
+                        .map(SensePrediction::index)
+                        .collect(Collectors.toList()))
+                .collect(Collectors.toList()));
+        List<List<VerbNetProp>> result = new ArrayList<>(parsed.size());
+        for (int i = 0; i < parsed.size(); ++i) {
+            result.add(align(parsed.get(i), senses.get(i), props.get(i)));
+        }
+        return result;
+    }
+
+    private List<VerbNetProp> align(DepTree parsed,
+                                    List<SensePrediction<VnClass>> senses,
+                                    List<Proposition<DepNode, PropBankArg>> props) {
+        Map<Integer, SensePrediction<VnClass>> sensesByIndex = senses.stream()
+                .collect(Collectors.toMap(SensePrediction::index, Function.identity()));
 
         List<Proposition<VnClass, PropBankArg>> filtered = new ArrayList<>();
         for (Proposition<DepNode, PropBankArg> prop : props) {
@@ -73,7 +121,7 @@ public class VerbNetSemParser {
             filtered.add(convert(prop, sensesByIndex.get(prop.relIndex()).sense()));
         }
 
-        return aligner.align(parsed, filtered);
+        return aligner.align(parsed, filtered, LemmaOverlay.of(senses));
     }
 
 }
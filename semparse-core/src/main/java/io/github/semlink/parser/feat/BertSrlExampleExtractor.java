@@ -2,24 +2,32 @@ package io.github.semlink.parser.feat;
 
 import com.google.common.base.Preconditions;
 
-import org.tensorflow.example.FeatureLists;
-import org.tensorflow.example.Features;
 import org.tensorflow.example.SequenceExample;
 
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+import io.github.semlink.app.CachingSubwordTokenizer;
+import io.github.semlink.app.SubwordTokenizer;
 import io.github.semlink.app.TensorflowModel;
+import io.github.semlink.app.TensorflowModelOptions;
+import io.github.semlink.app.WindowingStrategy;
 import io.github.semlink.app.WordPieceTokenizer;
+import io.github.semlink.extractor.DenseSequenceExtractor;
+import io.github.semlink.tensor.DenseExample;
+import io.github.semlink.type.Fields;
 import io.github.semlink.type.HasFields;
+import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import lombok.Setter;
 
 import static io.github.semlink.app.TensorflowModel.fromDirectory;
-import static io.github.semlink.tensor.TensorflowFeatureUtils.int64Feature;
-import static io.github.semlink.tensor.TensorflowFeatureUtils.int64Features;
 
 /**
  * Sequence example extractor that uses a {@link io.github.semlink.app.WordPieceTokenizer} to convert the input prior to normal
@@ -27,7 +35,7 @@ import static io.github.semlink.tensor.TensorflowFeatureUtils.int64Features;
  *
  * @author jamesgung
  */
-public class BertSrlExampleExtractor extends BertExampleExtractor {
+public class BertSrlExampleExtractor extends BertExampleExtractor implements DenseSequenceExtractor, WindowingStrategy {
 
     public static final int SEGMENT_A = 0;
     public static final int SEGMENT_B = 1;
@@ -42,94 +50,238 @@ public class BertSrlExampleExtractor extends BertExampleExtractor {
      */
     @Setter
     private String segmentIdsKey = "bert_seg_ids";
+    /**
+     * Maximum number of wordpieces per input, including special tokens and the appended predicate, or -1 for no limit. Used to
+     * restrict long sentences to a window of words around each predicate.
+     */
+    @Setter
+    private int maxWordPieces = -1;
 
 
-    public BertSrlExampleExtractor(@NonNull WordPieceTokenizer wordPieceTokenizer) {
+    public BertSrlExampleExtractor(@NonNull SubwordTokenizer wordPieceTokenizer) {
         super(wordPieceTokenizer);
     }
 
     @Override
     public SequenceExample extractSequence(@NonNull HasFields sequence) {
-        final int predicateIndex = sequence.field(predicateIndexKey);
+        return extractDense(sequence).toSequenceExample();
+    }
+
+    @Override
+    public List<SequenceExample> extractSequences(@NonNull List<HasFields> sequences) {
+        return extractDense(sequences).stream()
+                .map(DenseExample::toSequenceExample)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public DenseExample extractDense(@NonNull HasFields sequence) {
         final List<String> words = sequence.field(wordsKey);
+        return example(encode(words), sequence);
+    }
 
-        final List<String> splitTokens = new ArrayList<>();
-        final List<Integer> maskValues = new ArrayList<>();
-        final List<Integer> segmentIds = new ArrayList<>();
+    /**
+     * Extract features for a batch of inputs, such as the predicates of one or more sentences. Each distinct sentence is encoded
+     * only once, and the features for each of its predicates are derived from the shared sentence encoding.
+     */
+    @Override
+    public List<DenseExample> extractDense(@NonNull List<HasFields> sequences) {
+        Map<List<String>, SentenceEncoding> encodings = new HashMap<>();
+        List<DenseExample> result = new ArrayList<>(sequences.size());
+        for (HasFields sequence : sequences) {
+            final List<String> words = sequence.field(wordsKey);
+            result.add(example(encodings.computeIfAbsent(words, this::encode), sequence));
+        }
+        return result;
+    }
 
-        List<String> predicateSplitTokens = new ArrayList<>();
+    private DenseExample example(SentenceEncoding encoding, HasFields sequence) {
+        final int predicateIndex = sequence.field(predicateIndexKey);
+        if (sequence.hasFields(WINDOW_START_KEY, WINDOW_END_KEY)) {
+            return encoding.example(predicateIndex, sequence.field(WINDOW_START_KEY), sequence.field(WINDOW_END_KEY));
+        }
+        return encoding.example(predicateIndex, 0, encoding.wordSubtokens.length);
+    }
 
-        // [CLS], word_1, word_2, ...
-        splitTokens.add(BERT_CLS);
-        maskValues.add(0);
-        segmentIds.add(SEGMENT_A);
+    /**
+     * Restrict inputs whose sentences exceed the maximum number of wordpieces to a single window of words centred on the
+     * predicate, holding as many words as fit within the limit, so that the cost of each input is bounded by the limit rather than
+     * by the length of its sentence. Words outside of the window are left unlabeled. Wordpiece lengths are computed once per
+     * sentence.
+     */
+    @Override
+    public List<List<HasFields>> windows(@NonNull List<HasFields> inputs) {
+        Map<List<String>, int[]> sentenceLengths = new HashMap<>();
+        List<List<HasFields>> result = new ArrayList<>(inputs.size());
+        for (HasFields input : inputs) {
+            if (maxWordPieces < 0) {
+                result.add(Collections.singletonList(input));
+                continue;
+            }
+            final List<String> words = input.field(wordsKey);
+            final int predicateIndex = input.field(predicateIndexKey);
+            result.add(Collections.singletonList(
+                    window(input, sentenceLengths.computeIfAbsent(words, this::wordPieceLengths), predicateIndex)));
+        }
+        return result;
+    }
 
-        int tokenIndex = 0; // current token index
-        for (String token : words) {
-            List<String> subtokens = wordPieceTokenizer.tokenize(token);
+    private int[] wordPieceLengths(List<String> words) {
+        int[] lengths = new int[words.size()];
+        for (int i = 0; i < lengths.length; ++i) {
+            lengths[i] = wordPieceTokenizer.tokenizeToIds(words.get(i)).length;
+        }
+        return lengths;
+    }
 
-            boolean isPredicate = predicateIndex == tokenIndex;
-            if (isPredicate) {
-                predicateSplitTokens = subtokens;
+    private HasFields window(HasFields input, int[] lengths, int predicateIndex) {
+        // [CLS], [SEP], [SEP], and predicate subtokens appended after the window
+        final int capacity = maxWordPieces - 3 - lengths[predicateIndex];
+        if (Arrays.stream(lengths).sum() <= capacity) {
+            return input;
+        }
+        // always include the predicate, even if it does not fit on its own, then alternately extend either side while words fit
+        int start = predicateIndex;
+        int end = predicateIndex + 1;
+        int size = lengths[predicateIndex];
+        boolean left = true;
+        while (true) {
+            boolean fitsLeft = start > 0 && size + lengths[start - 1] <= capacity;
+            boolean fitsRight = end < lengths.length && size + lengths[end] <= capacity;
+            if (!fitsLeft && !fitsRight) {
+                break;
+            }
+            if (fitsLeft && (left || !fitsRight)) {
+                size += lengths[--start];
+            } else {
+                size += lengths[end++];
             }
+            left = !left;
+        }
+        return new Fields()
+                .add(wordsKey, input.field(wordsKey))
+                .add(predicateIndexKey, predicateIndex)
+                .add(WINDOW_START_KEY, start)
+                .add(WINDOW_END_KEY, end)
+                .add(WINDOW_FOCUS_KEY, predicateIndex);
+    }
+
+    private SentenceEncoding encode(List<String> words) {
+        final int[] specialIds = wordPieceTokenizer.convertTokensToIdArray(Arrays.asList(BERT_CLS, BERT_SEP));
+        final int clsId = specialIds[0];
+        final int sepId = specialIds[1];
+
+        final int[][] wordSubtokens = new int[words.size()][];
+        int numSubtokens = 0;
+        for (int i = 0; i < wordSubtokens.length; ++i) {
+            wordSubtokens[i] = wordPieceTokenizer.tokenizeToIds(words.get(i));
+            Preconditions.checkState(wordSubtokens[i].length > 0, "No wordpieces produced for word: %s", words.get(i));
+            numSubtokens += wordSubtokens[i].length;
+        }
+
+        final long[] splitTokens = new long[numSubtokens + 2];
+        final long[] maskValues = new long[numSubtokens + 2];
+        final int[] wordStarts = new int[words.size()];
+
+        // [CLS], word_1, word_2, ...
+        int index = 0;
+        splitTokens[index++] = clsId;
+
+        for (int tokenIndex = 0; tokenIndex < wordSubtokens.length; ++tokenIndex) {
+            wordStarts[tokenIndex] = index;
+            maskValues[index] = 1;
+            for (int subtoken : wordSubtokens[tokenIndex]) {
+                splitTokens[index++] = subtoken;
+            }
+        }
+
+        // ..., word_n-1, word_n, [SEP]
+        splitTokens[index] = sepId;
+
+        return new SentenceEncoding(wordSubtokens, wordStarts, splitTokens, maskValues, sepId);
+    }
+
+    /**
+     * Predicate-independent wordpiece encoding of a sentence, up to and including the first [SEP].
+     */
+    @AllArgsConstructor
+    private class SentenceEncoding {
+
+        private final int[][] wordSubtokens;
+        private final int[] wordStarts;
+        private final long[] splitTokens;
+        private final long[] maskValues;
+        private final int sepId;
+
+        /**
+         * Features for a predicate, restricted to a window of words containing the predicate.
+         */
+        private DenseExample example(int predicateIndex, int start, int end) {
+            Preconditions.checkArgument(predicateIndex >= start && predicateIndex < end,
+                    "Predicate %s lies outside of window [%s, %s)", predicateIndex, start, end);
+            final int[] predicateSubtokens = wordSubtokens[predicateIndex];
+
+            // wordpiece range of window words, excluding [CLS] and [SEP]
+            final int pieceStart = wordStarts[start];
+            final int pieceEnd = end < wordStarts.length ? wordStarts[end] : this.splitTokens.length - 1;
+
+            // [CLS], window wordpieces, [SEP], predicate wordpieces, [SEP]
+            final int windowLength = pieceEnd - pieceStart + 2;
+            final int length = windowLength + predicateSubtokens.length + 1;
+            final long[] splitTokens = new long[length];
+            final long[] maskValues = new long[length];
+            // segment IDs are 0 (SEGMENT_A) unless set below
+            final long[] segmentIds = new long[length];
+
+            splitTokens[0] = this.splitTokens[0];
+            System.arraycopy(this.splitTokens, pieceStart, splitTokens, 1, pieceEnd - pieceStart);
+            System.arraycopy(this.maskValues, pieceStart, maskValues, 1, pieceEnd - pieceStart);
+            splitTokens[windowLength - 1] = sepId;
 
-            splitTokens.addAll(subtokens);
-            maskValues.add(1);
             // this model indicates the focus predicate by setting the segment ID to B
-            segmentIds.add(isPredicate ? SEGMENT_B : SEGMENT_A);
+            segmentIds[wordStarts[predicateIndex] - pieceStart + 1] = SEGMENT_B;
 
-            if (subtokens.size() > 1) {
-                maskValues.addAll(Collections.nCopies(subtokens.size() - 1, 0));
-                segmentIds.addAll(Collections.nCopies(subtokens.size() - 1, SEGMENT_A));
+            // predicate_subtoken_1, predicate_subtoken2, ..., [SEP]
+            int index = windowLength;
+            for (int subtoken : predicateSubtokens) {
+                segmentIds[index] = SEGMENT_B;
+                splitTokens[index++] = subtoken;
             }
 
-            ++tokenIndex;
+            segmentIds[index] = SEGMENT_B;
+            splitTokens[index] = sepId;
+
+            return new DenseExample()
+                    // IDs for WordPiece tokens
+                    .addSequence(bertIdsKey, splitTokens)
+                    // mask used to ignore subtokens in prediction
+                    .addSequence(maskKey, maskValues)
+                    // segment ids for segment embeddings passed as inputs to BERT
+                    .addSequence(segmentIdsKey, segmentIds)
+                    // index of predicate within window words
+                    .addContext(predicateIndexKey, predicateIndex - start)
+                    // length of wordpiece sequence input to BERT
+                    .addContext(bertLengthKey, length)
+                    // boiler plate
+                    .addContext(lengthKey, end - start)
+                    .addContext(sentenceIndexKey, 0);
         }
 
-        // ..., word_n-1, word_n, [SEP]
-        splitTokens.add(BERT_SEP);
-        maskValues.add(0);
-        segmentIds.add(0);
-
-        // predicate_subtoken_1, predicate_subtoken2, ..., [SEP]
-        splitTokens.addAll(predicateSplitTokens);
-        maskValues.addAll(Collections.nCopies(predicateSplitTokens.size(), 0));
-        segmentIds.addAll(Collections.nCopies(predicateSplitTokens.size(), SEGMENT_B));
-
-        splitTokens.add(BERT_SEP);
-        maskValues.add(0);
-        segmentIds.add(SEGMENT_B);
-
-        Preconditions.checkState(splitTokens.size() == maskValues.size()
-                        && segmentIds.size() == maskValues.size(),
-                "Number of segment IDs, wordpiece IDs, and mask values do not match: %s vs. %s vs %s",
-                segmentIds.size(), splitTokens.size(), maskValues.size());
-
-        FeatureLists.Builder featureLists = FeatureLists.newBuilder()
-                // IDs for WordPiece tokens
-                .putFeatureList(bertIdsKey, int64Features(wordPieceTokenizer.convertTokensToIds(splitTokens)))
-                // mask used to ignore subtokens in prediction
-                .putFeatureList(maskKey, int64Features(maskValues))
-                // segment ids for segment embeddings passed as inputs to BERT
-                .putFeatureList(segmentIdsKey, int64Features(segmentIds));
-
-        Features.Builder features = Features.newBuilder()
-                // index of first predicate subtoken within WordPiece tokens
-                .putFeature(predicateIndexKey, int64Feature(predicateIndex))
-                // length of wordpiece sequence input to BERT
-                .putFeature(bertLengthKey, int64Feature(splitTokens.size()))
-                // boiler plate
-                .putFeature(lengthKey, int64Feature(words.size()))
-                .putFeature(sentenceIndexKey, int64Feature(0));
-
-        return SequenceExample.newBuilder()
-                .setContext(features)
-                .setFeatureLists(featureLists)
-                .build();
     }
 
     public static TensorflowModel bertFromDirectory(@NonNull String modelDir) {
-        return fromDirectory(modelDir, new BertSrlExampleExtractor(
+        return bertFromDirectory(modelDir, new TensorflowModelOptions());
+    }
+
+    public static TensorflowModel bertFromDirectory(@NonNull String modelDir, @NonNull TensorflowModelOptions options) {
+        return fromDirectory(modelDir, srlExtractorFromDirectory(modelDir), options);
+    }
+
+    /**
+     * Initialize an extractor using the wordpiece vocabulary of a BERT SRL model at a given directory.
+     */
+    public static BertSrlExampleExtractor srlExtractorFromDirectory(@NonNull String modelDir) {
+        return new BertSrlExampleExtractor(new CachingSubwordTokenizer(
                 new WordPieceTokenizer(Paths.get(modelDir, "model", "assets", "vocab.txt").toString())));
     }
 
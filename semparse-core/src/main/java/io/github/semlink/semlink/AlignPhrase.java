@@ -16,6 +16,7 @@
 
 package io.github.semlink.semlink;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -28,7 +29,6 @@ import lombok.experimental.Accessors;
  * @author jgung
  */
 @Getter
-@Setter
 @EqualsAndHashCode(of = "index")
 @Accessors(fluent = true)
 @AllArgsConstructor
@@ -37,6 +37,7 @@ public class AlignPhrase {
     /**
      * Unique index within sequence.
      */
+    @Setter(AccessLevel.PROTECTED)
     private int index;
 
 }
@@ -16,16 +16,14 @@
 
 package io.github.semlink.semlink;
 
-import com.google.common.collect.LinkedListMultimap;
-import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Sets;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -35,7 +33,9 @@ import lombok.NonNull;
 import lombok.experimental.Accessors;
 
 /**
- * Phrase alignment, with multiple targets potentially mapping to the same source.
+ * Phrase alignment, with multiple targets potentially mapping to the same source. Aligned pairs are indexed by the
+ * {@link AlignPhrase#index() indices} of their phrases, and the numbers of aligned source and target phrases are maintained
+ * as pairs are added and removed, so that alignment checks and counts take constant time.
  *
  * @author jgung
  */
@@ -43,87 +43,133 @@ import lombok.experimental.Accessors;
 @NoArgsConstructor
 public class Alignment<S extends AlignPhrase, T extends AlignPhrase> {
 
-    private ListMultimap<S, T> alignment = LinkedListMultimap.create();
+    // targets of each source and sources of each target, by phrase index, in order of insertion
+    private final List<List<T>> targetsBySource = new ArrayList<>();
+    private final List<List<S>> sourcesByTarget = new ArrayList<>();
+    private final BitSet sourceIndices = new BitSet();
+    private final BitSet targetIndices = new BitSet();
+    private int alignedSources;
+    private int alignedTargets;
 
     @Getter
-    private Set<S> sourcePhrases = new LinkedHashSet<>();
+    private Set<S> sourcePhrases = Collections.emptySet();
     @Getter
-    private Set<T> targetPhrases = new LinkedHashSet<>();
+    private Set<T> targetPhrases = Collections.emptySet();
 
     public static <S extends AlignPhrase, T extends AlignPhrase> Alignment<S, T> of(@NonNull List<S> sourcePhrases,
                                                                                     @NonNull List<T> targetPhrases) {
         Alignment<S, T> result = new Alignment<>();
-        result.sourcePhrases.addAll(sourcePhrases);
-        result.targetPhrases.addAll(targetPhrases);
+        result.sourcePhrases = Collections.unmodifiableSet(new LinkedHashSet<>(sourcePhrases));
+        result.targetPhrases = Collections.unmodifiableSet(new LinkedHashSet<>(targetPhrases));
+        result.sourcePhrases.forEach(source -> result.sourceIndices.set(source.index()));
+        result.targetPhrases.forEach(target -> result.targetIndices.set(target.index()));
         return result;
     }
 
     public S getSource(@NonNull T target) {
-        for (Map.Entry<S, T> entry : alignment.entries()) {
-            if (entry.getValue().equals(target)) {
-                return entry.getKey();
-            }
-        }
-        return null;
+        List<S> sources = get(sourcesByTarget, target.index());
+        return sources.isEmpty() ? null : sources.get(0);
     }
 
     public Alignment<S, T> add(@NonNull S source, @NonNull T target) {
-        alignment.put(source, target);
+        List<T> targets = getOrCreate(targetsBySource, source.index());
+        if (targets.isEmpty() && sourceIndices.get(source.index())) {
+            ++alignedSources;
+        }
+        targets.add(target);
+        List<S> sources = getOrCreate(sourcesByTarget, target.index());
+        if (sources.isEmpty() && targetIndices.get(target.index())) {
+            ++alignedTargets;
+        }
+        sources.add(source);
         return this;
     }
 
     public Alignment<S, T> remove(@NonNull S source, @NonNull T target) {
-        alignment.remove(source, target);
+        List<T> targets = get(targetsBySource, source.index());
+        if (!targets.remove(target)) {
+            return this;
+        }
+        if (targets.isEmpty() && sourceIndices.get(source.index())) {
+            --alignedSources;
+        }
+        List<S> sources = get(sourcesByTarget, target.index());
+        sources.remove(source);
+        if (sources.isEmpty() && targetIndices.get(target.index())) {
+            --alignedTargets;
+        }
         return this;
     }
 
     public boolean alignedSource(@NonNull S source) {
-        return alignment.containsKey(source);
+        return !get(targetsBySource, source.index()).isEmpty();
     }
 
     public boolean alignedTarget(@NonNull T target) {
-        return alignment.values().contains(target);
+        return !get(sourcesByTarget, target.index()).isEmpty();
     }
 
     public List<S> sourcePhrases(boolean aligned) {
-        if (aligned) {
-            return sourcePhrases.stream().filter(this::alignedSource).collect(Collectors.toList());
-        }
-        return sourcePhrases.stream().filter(src -> !alignedSource(src)).collect(Collectors.toList());
+        return sourcePhrases.stream().filter(src -> alignedSource(src) == aligned).collect(Collectors.toList());
     }
 
     public List<T> targetPhrases(boolean aligned) {
-        if (aligned) {
-            return targetPhrases.stream().filter(this::alignedTarget).collect(Collectors.toList());
-        }
-        return targetPhrases.stream().filter(src -> !alignedTarget(src)).collect(Collectors.toList());
+        return targetPhrases.stream().filter(tgt -> alignedTarget(tgt) == aligned).collect(Collectors.toList());
+    }
+
+    /**
+     * Return the number of aligned (or unaligned) source phrases, equivalent to the size of {@link #sourcePhrases(boolean)}.
+     */
+    public int sourceCount(boolean aligned) {
+        return aligned ? alignedSources : sourcePhrases.size() - alignedSources;
+    }
+
+    /**
+     * Return the number of aligned (or unaligned) target phrases, equivalent to the size of {@link #targetPhrases(boolean)}.
+     */
+    public int targetCount(boolean aligned) {
+        return aligned ? alignedTargets : targetPhrases.size() - alignedTargets;
     }
 
     public List<T> alignedPhrases(@NonNull S source) {
-        return alignment.get(source);
+        return new ArrayList<>(get(targetsBySource, source.index()));
     }
 
     @Override
     public String toString() {
         List<String> lines = new ArrayList<>();
-
         Set<T> allAligned = new HashSet<>();
-
         for (S source : sourcePhrases) {
-            Collection<T> aligned = alignment.get(source);
+            List<T> aligned = get(targetsBySource, source.index());
             allAligned.addAll(aligned);
-
             String target = aligned.stream()
                     .map(Object::toString)
                     .collect(Collectors.joining(" ... "));
-
             lines.add(String.format("%-20s -> %-20s", source, target.isEmpty() ? "" : target));
         }
-
         Sets.difference(targetPhrases, allAligned).forEach(notAligned ->
                 lines.add(String.format("%-20s <- %-20s", "", notAligned)));
-
         return String.join("\n", lines);
     }
 
+    private static <P> List<P> get(List<List<P>> byIndex, int index) {
+        if (index >= byIndex.size()) {
+            return Collections.emptyList();
+        }
+        List<P> phrases = byIndex.get(index);
+        return null == phrases ? Collections.emptyList() : phrases;
+    }
+
+    private static <P> List<P> getOrCreate(List<List<P>> byIndex, int index) {
+        while (byIndex.size() <= index) {
+            byIndex.add(null);
+        }
+        List<P> phrases = byIndex.get(index);
+        if (null == phrases) {
+            phrases = new ArrayList<>(1);
+            byIndex.set(index, phrases);
+        }
+        return phrases;
+    }
+
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.semlink;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import io.github.semlink.propbank.type.ArgNumber;
+import io.github.semlink.semlink.PbVnMappings.MappedRoleset;
+import io.github.semlink.semlink.aligner.SelResAligner;
+import io.github.semlink.verbnet.type.FramePhrase;
+import io.github.semlink.verbnet.type.NounPhrase;
+import io.github.semlink.verbnet.type.SyntacticFrame;
+import io.github.semlink.verbnet.type.ThematicRoleType;
+import io.github.semlink.verbnet.type.VerbNetSyntaxType;
+
+/**
+ * Optimistic bounds on the score a proposition can reach when aligned to a given frame, used to skip frames in a
+ * branch-and-bound frame search. Bounds are only given for frames that no mapped roleset can align to. For such frames,
+ * alignment is limited to the rel, selectional restriction and filler heuristics. Each of these aligns a source phrase to at
+ * most one target phrase, and only to a noun phrase with a role that the source phrase could receive. These frames also leave
+ * the proposition's arguments unchanged, so skipping them cannot affect the alignment of later frames.
+ *
+ * @author jgung
+ */
+class FrameBounds {
+
+    private static final EnumSet<ThematicRoleType> A0_FILLERS = EnumSet.of(ThematicRoleType.THEME, ThematicRoleType.AGENT,
+            ThematicRoleType.CAUSER, ThematicRoleType.STIMULUS, ThematicRoleType.PIVOT);
+    private static final EnumSet<ThematicRoleType> A1_FILLERS = EnumSet.of(ThematicRoleType.THEME, ThematicRoleType.PATIENT);
+    private static final EnumSet<ThematicRoleType> A3_FILLERS = EnumSet.noneOf(ThematicRoleType.class);
+    private static final EnumSet<ThematicRoleType> A4_FILLERS = EnumSet.noneOf(ThematicRoleType.class);
+
+    static {
+        for (ThematicRoleType type : ThematicRoleType.values()) {
+            if (type.isStartingPoint()) {
+                A3_FILLERS.add(type);
+            }
+            if (type.isEndingPoint()) {
+                A4_FILLERS.add(type);
+            }
+        }
+    }
+
+    private final List<PropBankPhrase> phrases;
+    private final List<EnumSet<ThematicRoleType>> selResRoles;
+    private final Map<ArgNumber, EnumSet<ThematicRoleType>> mappedRoles;
+
+    private FrameBounds(List<PropBankPhrase> phrases,
+                        List<EnumSet<ThematicRoleType>> selResRoles,
+                        Map<ArgNumber, EnumSet<ThematicRoleType>> mappedRoles) {
+        this.phrases = phrases;
+        this.selResRoles = selResRoles;
+        this.mappedRoles = mappedRoles;
+    }
+
+    /**
+     * Compute frame-independent signatures of a proposition's phrases and candidate rolesets.
+     *
+     * @param phrases  PropBank phrases of the proposition
+     * @param rolesets candidate rolesets
+     * @return frame bounds, or empty if signatures could not be computed
+     */
+    static Optional<FrameBounds> of(List<PropBankPhrase> phrases, List<MappedRoleset> rolesets) {
+        Map<ArgNumber, EnumSet<ThematicRoleType>> mappedRoles = new EnumMap<>(ArgNumber.class);
+        for (MappedRoleset roleset : rolesets) {
+            for (Map.Entry<ArgNumber, Collection<String>> entry : roleset.roleMappings().entrySet()) {
+                EnumSet<ThematicRoleType> roles = mappedRoles.computeIfAbsent(entry.getKey(),
+                        number -> EnumSet.noneOf(ThematicRoleType.class));
+                for (String mapping : entry.getValue()) {
+                    ThematicRoleType.fromString(mapping).ifPresent(roles::add);
+                }
+            }
+        }
+        List<EnumSet<ThematicRoleType>> selResRoles = new ArrayList<>(phrases.size());
+        try {
+            for (PropBankPhrase phrase : phrases) {
+                EnumSet<ThematicRoleType> roles = EnumSet.noneOf(ThematicRoleType.class);
+                if (!isRel(phrase)) {
+                    // greedy heuristics are a superset of strict heuristics
+                    roles.addAll(SelResAligner.getThematicRolesGreedy(phrase).elementSet());
+                }
+                selResRoles.add(roles);
+            }
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+        return Optional.of(new FrameBounds(phrases, selResRoles, mappedRoles));
+    }
+
+    /**
+     * Return an upper bound on the number of aligned source phrases, and a lower bound on the number of unaligned target phrases
+     * for a given frame, or empty if the frame may be aligned through a mapped roleset. Bounds reflect the current arguments of
+     * the proposition, and so are computed immediately before the frame would be aligned.
+     *
+     * @param frame candidate frame
+     * @return {aligned source phrase upper bound, unaligned target phrase lower bound}
+     */
+    Optional<int[]> bound(SyntacticFrame frame) {
+        if (frame.phrases(VerbNetSyntaxType.VERB).size() != 1) {
+            return Optional.empty();
+        }
+        Set<ThematicRoleType> frameRoles = frame.roles().keySet();
+        EnumSet<ThematicRoleType> reachable = EnumSet.noneOf(ThematicRoleType.class);
+        int alignedSources = 0;
+        for (int i = 0; i < phrases.size(); ++i) {
+            PropBankPhrase phrase = phrases.get(i);
+            EnumSet<ThematicRoleType> mapped = mappedRoles.get(phrase.getNumber());
+            if (null != mapped && mapped.stream().anyMatch(frameRoles::contains)) {
+                return Optional.empty();
+            }
+            if (isRel(phrase)) {
+                ++alignedSources;
+                continue;
+            }
+            EnumSet<ThematicRoleType> candidates = EnumSet.copyOf(selResRoles.get(i));
+            candidates.addAll(fillerRoles(phrase.getNumber()));
+            if (phrase.getNumber() == ArgNumber.A0) {
+                candidates.add(ThematicRoleType.AGENT);
+            }
+            candidates.retainAll(frameRoles);
+            if (!candidates.isEmpty()) {
+                reachable.addAll(candidates);
+                ++alignedSources;
+            }
+        }
+        int reachableTargets = 1;
+        for (FramePhrase phrase : frame.phrases(VerbNetSyntaxType.NP)) {
+            if (reachable.contains(((NounPhrase) phrase).thematicRoleType())) {
+                ++reachableTargets;
+            }
+        }
+        int unalignedTargets = frame.elements().size() - Math.min(alignedSources, reachableTargets);
+        return Optional.of(new int[]{alignedSources, unalignedTargets});
+    }
+
+    private static boolean isRel(PropBankPhrase phrase) {
+        return phrase.getNumber() == ArgNumber.V && !phrase.isContinuation() && !phrase.isReference();
+    }
+
+    private static Set<ThematicRoleType> fillerRoles(ArgNumber number) {
+        switch (number) {
+            case A0:
+                return A0_FILLERS;
+            case A1:
+                return A1_FILLERS;
+            case A3:
+                return A3_FILLERS;
+            case A4:
+                return A4_FILLERS;
+            default:
+                return EnumSet.noneOf(ThematicRoleType.class);
+        }
+    }
+
+}
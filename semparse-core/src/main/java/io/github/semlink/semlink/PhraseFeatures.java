@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.semlink;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import io.github.clearwsd.type.DepNode;
+import io.github.clearwsd.type.FeatureType;
+import io.github.semlink.semlink.aligner.AlignmentUtils;
+import io.github.semlink.verbnet.type.PrepType;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+
+/**
+ * Linguistic features of a {@link PropBankPhrase} consulted by aligners. Features depend only on the tokens of a phrase, so
+ * they are computed once per phrase and shared by all aligners and candidate frames.
+ *
+ * @author jgung
+ */
+@Getter
+@Accessors(fluent = true)
+public class PhraseFeatures {
+
+    /**
+     * True if the phrase is a clause.
+     */
+    private final boolean clause;
+    /**
+     * True if the phrase contains a number (or "much").
+     */
+    private final boolean containsNumber;
+    /**
+     * Lower-cased text of the phrase, with tokens separated by spaces.
+     */
+    private final String text;
+    private final PrepType prep;
+
+    private PhraseFeatures(boolean clause, boolean containsNumber, String text, PrepType prep) {
+        this.clause = clause;
+        this.containsNumber = containsNumber;
+        this.text = text;
+        this.prep = prep;
+    }
+
+    /**
+     * Preposition at the start of the phrase, if present.
+     */
+    public Optional<PrepType> prep() {
+        return Optional.ofNullable(prep);
+    }
+
+    /**
+     * Compute features for a given phrase of tokens.
+     *
+     * @param tokens phrase tokens
+     * @return phrase features
+     */
+    public static PhraseFeatures of(@NonNull List<DepNode> tokens) {
+        DepNode head = AlignmentUtils.getHead(tokens);
+        boolean containsNumber = false;
+        for (DepNode node : tokens) {
+            if ("CD".equalsIgnoreCase(node.feature(FeatureType.Pos)) || "much".equalsIgnoreCase(node.feature(FeatureType.Text))) {
+                containsNumber = true;
+                break;
+            }
+        }
+        String text = tokens.stream()
+                .map(token -> token.feature(FeatureType.Text).toString())
+                .collect(Collectors.joining(" "))
+                .toLowerCase();
+        return new PhraseFeatures(AlignmentUtils.isClauseHead(head), containsNumber, text,
+                AlignmentUtils.getPrep(tokens).orElse(null));
+    }
+
+}
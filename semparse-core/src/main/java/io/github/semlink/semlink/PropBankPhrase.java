@@ -43,6 +43,7 @@ public class PropBankPhrase extends AlignPhrase {
     private DepTree parse;
     @Delegate
     private PropBankArg argument;
+    private volatile PhraseFeatures features;
 
     public PropBankPhrase(int index, Span<PropBankArg> span, DepTree parse) {
         super(index);
@@ -51,10 +52,34 @@ public class PropBankPhrase extends AlignPhrase {
         this.argument = span.label();
     }
 
+    /**
+     * Return a copy of this phrase with its own {@link PropBankArg}, sharing tokens and features, so that the copy's argument can
+     * be adjusted during alignment without affecting this phrase.
+     */
+    public PropBankPhrase copy() {
+        PropBankArg copied = new PropBankArg(argument.getNumber(), argument.getFunctionTag(), argument.isContinuation(),
+                argument.isReference());
+        PropBankPhrase copy = new PropBankPhrase(index(), Span.convert(span, copied), parse);
+        copy.features = features();
+        return copy;
+    }
+
     public List<DepNode> tokens() {
         return span.get(parse.tokens());
     }
 
+    /**
+     * Return linguistic features of this phrase, computing them on first use.
+     */
+    public PhraseFeatures features() {
+        PhraseFeatures result = features;
+        if (null == result) {
+            result = PhraseFeatures.of(tokens());
+            features = result;
+        }
+        return result;
+    }
+
     public DepNode start() {
         return parse.get(span.startIndex());
     }
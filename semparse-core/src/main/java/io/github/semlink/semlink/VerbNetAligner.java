@@ -22,17 +22,23 @@ import com.google.common.collect.ImmutableList;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import io.github.clearwsd.type.DepTree;
 import io.github.clearwsd.type.FeatureType;
 import io.github.semlink.app.Span;
 import io.github.semlink.parser.DefaultVerbNetProp;
+import io.github.semlink.parser.LemmaOverlay;
 import io.github.semlink.parser.Proposition;
 import io.github.semlink.parser.VerbNetProp;
 import io.github.semlink.propbank.DefaultPbIndex;
@@ -54,21 +60,47 @@ import io.github.semlink.verbnet.VnClass;
 import io.github.semlink.verbnet.VnFrame;
 import io.github.semlink.verbnet.type.NounPhrase;
 import io.github.semlink.verbnet.type.SyntacticFrame;
+import io.github.semlink.verbnet.type.SyntacticFrameCatalog;
 import io.github.semlink.verbnet.type.ThematicRoleType;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
 
 /**
- * PropBank VerbNet role mapping service.
+ * PropBank VerbNet role mapping service. By default, every candidate frame is aligned before selecting the best alignment. With
+ * {@link #branchAndBound(boolean) branch-and-bound} search enabled, frames whose optimistic score bound cannot beat the best
+ * alignment found so far are skipped, selecting the same frame with fewer alignments. Otherwise, given an
+ * {@link #alignmentPool(ForkJoinPool) alignment pool}, propositions with at least {@link #parallelThreshold(int) a threshold}
+ * number of candidate frames are aligned to their frames in parallel, again selecting the same frame.
  *
  * @author jgung
  */
-@AllArgsConstructor
 public class VerbNetAligner {
 
+    private static final AlignmentComparator COMPARATOR = new AlignmentComparator();
+
     private PbVnMappings mappings;
     private List<PbVnAligner> aligners;
     private VnPredicateExtractor predicateExtractor;
+    private SyntacticFrameCatalog frames = new SyntacticFrameCatalog();
+    @Setter
+    @Accessors(fluent = true)
+    private boolean branchAndBound;
+    @Setter
+    @Accessors(fluent = true)
+    private ForkJoinPool alignmentPool;
+    @Setter
+    @Accessors(fluent = true)
+    private int parallelThreshold = 16;
+
+    public VerbNetAligner(@NonNull PbVnMappings mappings,
+                          @NonNull List<PbVnAligner> aligners,
+                          @NonNull VnPredicateExtractor predicateExtractor) {
+        this.mappings = mappings;
+        this.aligners = aligners;
+        this.predicateExtractor = predicateExtractor;
+    }
 
     public VerbNetAligner(@NonNull PbVnMappings mappings) {
         this(mappings,
@@ -88,20 +120,35 @@ public class VerbNetAligner {
 
     public List<VerbNetProp> align(@NonNull DepTree parsed,
                                    @NonNull List<Proposition<VnClass, PropBankArg>> props) {
+        return align(parsed, props, LemmaOverlay.empty());
+    }
+
+    /**
+     * Align propositions to VerbNet, reading predicate lemmas through a given overlay (e.g. to use the verb lemmas of nominal
+     * predicates) without modifying the parse.
+     *
+     * @param parsed dependency parse
+     * @param props  propositions to align
+     * @param lemmas per-parse lemma overlay
+     * @return aligned VerbNet propositions
+     */
+    public List<VerbNetProp> align(@NonNull DepTree parsed,
+                                   @NonNull List<Proposition<VnClass, PropBankArg>> props,
+                                   @NonNull LemmaOverlay lemmas) {
         return props.stream()
                 .filter(prop -> null != prop.predicate())
-                .map(prop -> alignProp(prop, parsed))
+                .map(prop -> alignProp(prop, parsed, lemmas))
                 .collect(Collectors.toList());
     }
 
-    private VerbNetProp alignProp(Proposition<VnClass, PropBankArg> prop, DepTree parsed) {
+    private VerbNetProp alignProp(Proposition<VnClass, PropBankArg> prop, DepTree parsed, LemmaOverlay lemmas) {
         List<String> tokens = parsed.stream().map(node -> (String) node.feature(FeatureType.Text)).collect(Collectors.toList());
 
         DefaultVerbNetProp vnProp = new DefaultVerbNetProp()
                 .proposition(SemlinkRole.convert(prop))
                 .tokens(tokens);
 
-        align(prop, parsed).ifPresent(aligned -> {
+        align(prop, parsed, lemmas).ifPresent(aligned -> {
             // get thematic role alignment
             Preconditions.checkState(aligned.sourcePhrases().size() == prop.arguments().spans().size());
 
@@ -129,7 +176,7 @@ public class VerbNetAligner {
                 }
 
             }
-            String lemma = parsed.get(prop.relIndex()).feature(FeatureType.Lemma);
+            String lemma = lemmas.lemma(parsed.get(prop.relIndex()));
             // get semantic predicates
             vnProp.predicates(predicateExtractor.parsePredicates(aligned.alignment(), aligned.frame(),
                     prop.predicate(), lemma));
@@ -156,13 +203,16 @@ public class VerbNetAligner {
         return pbVnAlignment;
     }
 
-    private Optional<PbVnAlignment> align(Proposition<VnClass, PropBankArg> prop, DepTree source) {
+    /**
+     * Select the best alignment of a proposition to the frames of its predicate's class and ancestor classes.
+     */
+    Optional<PbVnAlignment> align(Proposition<VnClass, PropBankArg> prop, DepTree source, LemmaOverlay lemmas) {
 
         List<PropBankPhrase> phrases = PropBankPhrase.fromProp(prop, source);
 
         List<PbVnAlignment> alignments = new ArrayList<>();
 
-        String lemma = source.get(prop.relSpan().startIndex()).feature(FeatureType.Lemma);
+        String lemma = lemmas.lemma(source.get(prop.relSpan().startIndex()));
         List<MappedRoleset> rolesets = prop.predicate().related().stream()
                 .map(s -> mappings.rolesets(lemma, s.verbNetId().classId()))
                 .flatMap(List::stream)
@@ -170,49 +220,171 @@ public class VerbNetAligner {
                 .collect(Collectors.toList());
 
         // enumerate VerbNet frames
+        List<SyntacticFrame> candidates = new ArrayList<>();
         for (VnClass cls : prop.predicate().ancestors(true)) {
-
-            // iterate over individual frames
             for (VnFrame frame : cls.frames()) {
+                candidates.add(frames.frame(frame));
+            }
+        }
 
-                SyntacticFrame syntacticFrame = SyntacticFrame.of(frame);
-
-                PbVnAlignment align = align(prop, phrases, syntacticFrame, rolesets);
-                alignments.add(align);
+        if (branchAndBound) {
+            return alignBranchAndBound(prop, phrases, rolesets, candidates);
+        }
 
-            }
+        if (null != alignmentPool && candidates.size() >= parallelThreshold) {
+            return alignParallel(prop, phrases, rolesets, candidates);
+        }
 
+        for (SyntacticFrame frame : candidates) {
+            PbVnAlignment align = align(prop, phrases, frame, rolesets);
+            alignments.add(align);
         }
 
         if (alignments.size() > 0) {
-            return Optional.of(Collections.max(alignments, new AlignmentComparator()));
+            return Optional.of(Collections.max(alignments, COMPARATOR));
         }
         return Optional.empty();
     }
 
+    private Optional<PbVnAlignment> alignBranchAndBound(Proposition<VnClass, PropBankArg> prop,
+                                                        List<PropBankPhrase> phrases,
+                                                        List<MappedRoleset> rolesets,
+                                                        List<SyntacticFrame> candidates) {
+        Optional<FrameBounds> bounds = FrameBounds.of(phrases, rolesets);
+
+        PbVnAlignment best = null;
+        for (SyntacticFrame frame : candidates) {
+            if (null != best && bounds.isPresent()) {
+                // skip frames that cannot score higher than the best alignment, even with optimistic counts
+                Optional<int[]> bound = bounds.get().bound(frame);
+                if (bound.isPresent() && COMPARATOR.compare(bound.get()[0], bound.get()[1], 0,
+                        frame.frame().descriptionNumber(), best) <= 0) {
+                    continue;
+                }
+            }
+            PbVnAlignment align = align(prop, phrases, frame, rolesets);
+            // keep the first of equally-scored alignments, as in Collections#max
+            if (null == best || COMPARATOR.compare(align, best) > 0) {
+                best = align;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Align frames in parallel, each against its own copy of the proposition's phrases. Frames are not strictly independent:
+     * {@link AdjustInvalidRoles} may adjust argument numbers, which later frames then see in a sequential search. Results are
+     * therefore reduced in frame order, re-aligning any frame whose arguments were adjusted by an earlier frame, so that the
+     * selected frame, tie-breaks and final arguments are the same as in a sequential search. Frames are submitted to the
+     * {@link #alignmentPool(ForkJoinPool) alignment pool} as individual tasks.
+     */
+    private Optional<PbVnAlignment> alignParallel(Proposition<VnClass, PropBankArg> prop,
+                                                  List<PropBankPhrase> phrases,
+                                                  List<MappedRoleset> rolesets,
+                                                  List<SyntacticFrame> candidates) {
+        // compute shared phrase features once, before copying phrases
+        phrases.forEach(PropBankPhrase::features);
+        ArgNumber[] start = numbers(phrases);
+        List<Callable<FrameAttempt>> tasks = candidates.stream()
+                .map(frame -> (Callable<FrameAttempt>) () -> attempt(prop, phrases, start, frame, rolesets))
+                .collect(Collectors.toList());
+        List<FrameAttempt> attempts = new ArrayList<>();
+        try {
+            for (Future<FrameAttempt> attempt : alignmentPool.invokeAll(tasks)) {
+                attempts.add(attempt.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while aligning frames", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to align frame", e.getCause());
+        }
+
+        ArgNumber[] current = start;
+        FrameAttempt best = null;
+        for (int i = 0; i < attempts.size(); ++i) {
+            FrameAttempt attempt = attempts.get(i);
+            if (!Arrays.equals(attempt.start, current)) {
+                attempt = attempt(prop, phrases, current, candidates.get(i), rolesets);
+            }
+            current = attempt.end;
+            // keep the first of equally-scored alignments, as in Collections#max
+            if (null == best || COMPARATOR.compare(attempt.alignment, best.alignment) > 0) {
+                best = attempt;
+            }
+        }
+        if (null == best) {
+            return Optional.empty();
+        }
+
+        // leave arguments as a sequential search would, both for the proposition and the selected alignment's phrases
+        setNumbers(phrases, current);
+        setNumbers(best.phrases, current);
+        return Optional.of(best.alignment);
+    }
+
+    private FrameAttempt attempt(Proposition<VnClass, PropBankArg> prop,
+                                 List<PropBankPhrase> phrases,
+                                 ArgNumber[] start,
+                                 SyntacticFrame frame,
+                                 List<MappedRoleset> rolesets) {
+        List<PropBankPhrase> copies = phrases.stream()
+                .map(PropBankPhrase::copy)
+                .collect(Collectors.toList());
+        setNumbers(copies, start);
+        PbVnAlignment alignment = align(prop, copies, frame, rolesets);
+        return new FrameAttempt(start, numbers(copies), copies, alignment);
+    }
+
+    private static ArgNumber[] numbers(List<PropBankPhrase> phrases) {
+        return phrases.stream()
+                .map(PropBankPhrase::getNumber)
+                .toArray(ArgNumber[]::new);
+    }
+
+    private static void setNumbers(List<PropBankPhrase> phrases, ArgNumber[] numbers) {
+        for (int i = 0; i < numbers.length; ++i) {
+            phrases.get(i).setNumber(numbers[i]);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class FrameAttempt {
+        private final ArgNumber[] start;
+        private final ArgNumber[] end;
+        private final List<PropBankPhrase> phrases;
+        private final PbVnAlignment alignment;
+    }
+
     private static class AlignmentComparator implements Comparator<PbVnAlignment> {
         @Override
         public int compare(PbVnAlignment first, PbVnAlignment second) {
-            int aligned = first.sourcePhrases(true).size();
-            int otherAligned = second.sourcePhrases(true).size();
+            return compare(first.sourceCount(true), first.targetCount(false),
+                    first.rolesetAlignmentCount(), first.frame().frame().descriptionNumber(), second);
+        }
+
+        /**
+         * Compare an alignment, given by its aligned source phrase, unaligned target phrase and roleset alignment counts and
+         * frame description number, against another alignment.
+         */
+        int compare(int aligned, int unaligned, int rolesetAligned, String descriptionNumber, PbVnAlignment second) {
+            int otherAligned = second.sourceCount(true);
             if (aligned != otherAligned) {
                 return aligned - otherAligned;
             }
 
-            int unaligned = first.targetPhrases(false).size();
-            int otherUnaligned = second.targetPhrases(false).size();
+            int otherUnaligned = second.targetCount(false);
 
             if (otherUnaligned != unaligned) {
                 return otherUnaligned - unaligned;
             }
 
-            int rolesetAligned = first.rolesetAlignmentCount();
             int otherRolesetAligned = second.rolesetAlignmentCount();
             if (rolesetAligned != otherRolesetAligned) {
                 return rolesetAligned - otherRolesetAligned;
             }
 
-            return second.frame().frame().descriptionNumber().compareTo(first.frame().frame().descriptionNumber());
+            return second.frame().frame().descriptionNumber().compareTo(descriptionNumber);
         }
     }
 
@@ -39,11 +39,12 @@ public class AdjustInvalidRoles implements PbVnAligner {
             return;
         }
 
+        Set<ArgNumber> aligned = alignment.sourcePhrases(true).stream()
+                .map(PropBankPhrase::getNumber)
+                .collect(Collectors.toSet());
         Set<ArgNumber> valid = alignment.roleset().roles().roles().stream()
                 .map(PbRole::number)
-                .filter(r -> !alignment.sourcePhrases(true).stream()
-                        .map(PropBankPhrase::getNumber)
-                        .collect(Collectors.toSet()).contains(r))
+                .filter(r -> !aligned.contains(r))
                 .collect(Collectors.toSet());
 
         Optional<PropBankPhrase> decrement = alignment.sourcePhrases(false).stream()
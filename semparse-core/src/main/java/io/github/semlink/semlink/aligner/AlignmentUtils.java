@@ -39,6 +39,8 @@ import lombok.NonNull;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class AlignmentUtils {
 
+    private static final Set<String> CLAUSE_LABELS = ImmutableSet.of("advcl", "acl", "csubj", "ccomp", "xcomp");
+
     /**
      * Return the head from a phrase of {@link DepNode dependency nodes}.
      *
@@ -63,10 +65,15 @@ public final class AlignmentUtils {
      * Returns whether or not a given phrase a clause.
      */
     public static boolean isClause(@NonNull List<DepNode> phrase) {
-        DepNode node = getHead(phrase);
-        Set<String> clauseLabels = ImmutableSet.of("advcl", "acl", "csubj", "ccomp", "xcomp");
-        String label = node.feature(FeatureType.Dep);
-        return clauseLabels.contains(label);
+        return isClauseHead(getHead(phrase));
+    }
+
+    /**
+     * Returns whether or not a phrase with a given head is a clause.
+     */
+    public static boolean isClauseHead(@NonNull DepNode head) {
+        String label = head.feature(FeatureType.Dep);
+        return CLAUSE_LABELS.contains(label);
     }
 
     /**
@@ -77,16 +84,15 @@ public final class AlignmentUtils {
         if (tokens.size() > 1) {
             // e.g. "out of" or "in between"
             String concatenated = startText + "_" + tokens.get(1).feature(FeatureType.Text);
-            try {
-                return Optional.of(PrepType.valueOf(concatenated.toUpperCase()));
-            } catch (Exception ignored) {
+            Optional<PrepType> prep = PrepType.byName(concatenated.toUpperCase());
+            if (prep.isPresent()) {
+                return prep;
             }
         }
-        try {
-            return Optional.of(PrepType.valueOf(startText.toUpperCase()));
-        } catch (Exception ignored) {
+        if (null == startText) {
+            return Optional.empty();
         }
-        return Optional.empty();
+        return PrepType.byName(startText.toUpperCase());
     }
 
 }
@@ -26,7 +26,6 @@ import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import io.github.clearwsd.type.DepNode;
 import io.github.clearwsd.type.FeatureType;
 import io.github.semlink.propbank.type.ArgNumber;
 import io.github.semlink.propbank.type.FunctionTag;
@@ -37,7 +36,6 @@ import io.github.semlink.verbnet.type.ThematicRoleType;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
 
-import static io.github.semlink.semlink.aligner.AlignmentUtils.getPrep;
 import static io.github.semlink.verbnet.type.ThematicRoleType.AGENT;
 import static io.github.semlink.verbnet.type.ThematicRoleType.ASSET;
 import static io.github.semlink.verbnet.type.ThematicRoleType.ATTRIBUTE;
@@ -74,6 +72,8 @@ import static io.github.semlink.verbnet.type.ThematicRoleType.TRAJECTORY;
 @AllArgsConstructor
 public class SelResAligner implements PbVnAligner {
 
+    private static final ImmutableSet<FunctionTag> NON_LOCATIONS = ImmutableSet.of(FunctionTag.PRP, FunctionTag.MNR);
+
     private Function<PropBankPhrase, Multiset<ThematicRoleType>> roleMapper;
 
     public SelResAligner() {
@@ -115,9 +115,9 @@ public class SelResAligner implements PbVnAligner {
 
     public static Multiset<ThematicRoleType> getThematicRolesGreedy(@NonNull PropBankPhrase phrase) {
         Multiset<ThematicRoleType> themRoles = getThematicRolesStrict(phrase);
-        Optional<PrepType> prep = getPrep(phrase.tokens());
+        Optional<PrepType> prep = phrase.features().prep();
 
-        boolean possibleLocation = !ImmutableSet.of(FunctionTag.PRP, FunctionTag.MNR).contains(phrase.argument().getFunctionTag());
+        boolean possibleLocation = !NON_LOCATIONS.contains(phrase.argument().getFunctionTag());
         if (prep.isPresent()) {
             PrepType type = prep.get();
             if (possibleLocation && type.maybeDestination()) {
@@ -144,18 +144,15 @@ public class SelResAligner implements PbVnAligner {
 
     public static Multiset<ThematicRoleType> getThematicRolesStrict(@NonNull PropBankPhrase phrase) {
         Multiset<ThematicRoleType> themRoles = TreeMultiset.create();
-        Optional<PrepType> prep = getPrep(phrase.tokens());
+        Optional<PrepType> prep = phrase.features().prep();
 
-        String text = phrase.tokens().stream()
-                .map(token -> token.feature(FeatureType.Text).toString())
-                .collect(Collectors.joining(" "))
-                .toLowerCase();
+        String text = phrase.features().text();
 
         if (text.equalsIgnoreCase("how much") || text.equalsIgnoreCase("how much money")) {
             themRoles.add(ASSET);
         }
 
-        boolean isClause = AlignmentUtils.isClause(phrase.tokens());
+        boolean isClause = phrase.features().clause();
 
         // preposition heuristics
         if (prep.isPresent()) {
@@ -256,12 +253,7 @@ public class SelResAligner implements PbVnAligner {
     }
 
     public static boolean containsNumber(PropBankPhrase phrase) {
-        for (DepNode node : phrase.tokens()) {
-            if ("CD".equalsIgnoreCase(node.feature(FeatureType.Pos)) || "much".equalsIgnoreCase(node.feature(FeatureType.Text))) {
-                return true;
-            }
-        }
-        return false;
+        return phrase.features().containsNumber();
     }
 
     private static boolean startsWithWhere(PropBankPhrase phrase) {
@@ -25,8 +25,6 @@ import io.github.semlink.verbnet.type.PrepType;
 import io.github.semlink.verbnet.type.Preposition;
 import lombok.NonNull;
 
-import static io.github.semlink.semlink.aligner.AlignmentUtils.getPrep;
-
 /**
  * Aligner based on syntactic cues/restrictions.
  *
@@ -42,7 +40,7 @@ public class SynResAligner implements PbVnAligner {
     }
 
     private void filterInvalid(@NonNull PbVnAlignment alignment, @NonNull PropBankPhrase pbPhrase) {
-        Optional<PrepType> prep = getPrep(pbPhrase.tokens());
+        Optional<PrepType> prep = pbPhrase.features().prep();
         if (!prep.isPresent()) {
             return;
         }
@@ -41,6 +41,13 @@ public class FramePhrase extends AlignPhrase {
         this.type = type;
     }
 
+    /**
+     * Assign the index of this phrase within its frame, once its position among the frame's elements is known.
+     */
+    void assignIndex(int index) {
+        index(index);
+    }
+
     public static FramePhrase of(@NonNull VnSyntax phrase) {
         if (phrase instanceof VnNounPhrase) {
             return new NounPhrase((VnNounPhrase) phrase);
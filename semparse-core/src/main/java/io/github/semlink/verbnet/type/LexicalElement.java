@@ -29,14 +29,16 @@ import lombok.NonNull;
 public class LexicalElement extends FramePhrase {
 
     private VnLex lex;
+    private LexType value;
 
     public LexicalElement(@NonNull VnLex lex) {
         super(VerbNetSyntaxType.LEX);
         this.lex = lex;
+        this.value = LexType.fromString(lex.value()).orElse(LexType.NONE);
     }
 
     public LexType value() {
-        return LexType.fromString(lex.value()).orElse(LexType.NONE);
+        return value;
     }
 
     public enum LexType {
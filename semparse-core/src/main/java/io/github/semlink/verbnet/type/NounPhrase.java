@@ -23,6 +23,7 @@ import java.util.stream.Collectors;
 import io.github.semlink.verbnet.restrictions.DefaultVnRestrictions;
 import io.github.semlink.verbnet.restrictions.VnRestrictions;
 import io.github.semlink.verbnet.syntax.VnNounPhrase;
+import lombok.AccessLevel;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.experimental.Accessors;
@@ -36,13 +37,15 @@ import lombok.experimental.Accessors;
 public class NounPhrase extends FramePhrase {
 
     private VnNounPhrase vnNounPhrase;
+    private ThematicRoleType thematicRoleType;
 
-    @Setter
+    @Setter(AccessLevel.PACKAGE)
     private Preposition preposition;
 
     public NounPhrase(@NonNull VnNounPhrase vnNounPhrase) {
         super(VerbNetSyntaxType.NP);
         this.vnNounPhrase = vnNounPhrase;
+        this.thematicRoleType = ThematicRoleType.fromString(vnNounPhrase.thematicRole()).orElse(ThematicRoleType.NONE);
     }
 
     /**
@@ -56,7 +59,7 @@ public class NounPhrase extends FramePhrase {
      * VerbNet thematic role type for this NP.
      */
     public ThematicRoleType thematicRoleType() {
-        return ThematicRoleType.fromString(vnNounPhrase.thematicRole()).orElse(ThematicRoleType.NONE);
+        return thematicRoleType;
     }
 
     /**
@@ -16,7 +16,12 @@
 
 package io.github.semlink.verbnet.type;
 
+import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -73,32 +78,46 @@ public enum PrepType {
     WITHIN,
     UNKNOWN;
 
+    private static final Map<String, PrepType> BY_NAME = Arrays.stream(values())
+            .collect(Collectors.toMap(Enum::name, Function.identity()));
+    private static final EnumSet<PrepType> TRAJECTORY = EnumSet.of(BETWEEN, IN_BETWEEN, THROUGH, OVER, UNDER, ABOVE, BELOW,
+            BACK, BESIDE);
+    private static final EnumSet<PrepType> LOCATION = EnumSet.of(UPON, UNDER, TOWARDS, TO, THROUGH, OVER, OUT_OF, ONTO, ON,
+            OFF, INTO, IN_BETWEEN, IN, FROM, BY, BETWEEN, BELOW, BACK, AT, ABOVE);
+    private static final EnumSet<PrepType> SOURCE = EnumSet.of(OUT_OF, FROM);
+    private static final EnumSet<PrepType> DESTINATION = EnumSet.of(FOR, TO, INTO, TOWARDS, ONTO, ON, AT);
+
     public boolean isTrajectory() {
-        return EnumSet.of(BETWEEN, IN_BETWEEN, THROUGH, OVER, UNDER, ABOVE, BELOW, BACK, BESIDE).contains(this);
+        return TRAJECTORY.contains(this);
     }
 
     public boolean maybeLocation() {
-        return EnumSet.of(UPON, UNDER, TOWARDS, TO, THROUGH, OVER, OUT_OF, ONTO, ON, OFF, INTO, IN_BETWEEN, IN, FROM,
-                BY, BETWEEN, BELOW, BACK, AT, ABOVE).contains(this);
+        return LOCATION.contains(this);
     }
 
     public boolean maybeSource() {
-        return EnumSet.of(OUT_OF, FROM).contains(this);
+        return SOURCE.contains(this);
     }
 
     public boolean maybeDestination() {
-        return EnumSet.of(FOR, TO, INTO, TOWARDS, ONTO, ON, AT).contains(this);
+        return DESTINATION.contains(this);
     }
 
     public static EnumSet<PrepType> to() {
         return EnumSet.of(INTO, TO, ONTO);
     }
 
+    /**
+     * Look up a preposition type by its exact name, as with {@link #valueOf(String)}, without throwing for unknown names.
+     *
+     * @param name preposition type name, e.g. "OUT_OF"
+     * @return preposition type, or empty if no type has the given name
+     */
+    public static Optional<PrepType> byName(String name) {
+        return Optional.ofNullable(null == name ? null : BY_NAME.get(name));
+    }
+
     public static PrepType fromString(@NonNull String string) {
-        try {
-            return PrepType.valueOf(string.trim().toUpperCase());
-        } catch (Exception ignored) {
-            return UNKNOWN;
-        }
+        return byName(string.trim().toUpperCase()).orElse(UNKNOWN);
     }
-}
\ No newline at end of file
+}
@@ -16,6 +16,7 @@
 
 package io.github.semlink.verbnet.type;
 
+import java.util.Collections;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -32,16 +33,11 @@ import lombok.NonNull;
 public class Preposition extends FramePhrase {
 
     private VnPrep prep;
+    private Set<PrepType> valid;
 
     public Preposition(@NonNull VnPrep prep) {
         super(VerbNetSyntaxType.PREP);
         this.prep = prep;
-    }
-
-    /**
-     * Return valid prepositions for this phrase.
-     */
-    public Set<PrepType> valid() {
         Set<PrepType> types = prep.types().stream()
                 .filter(type -> !type.isEmpty())
                 .map(PrepType::fromString)
@@ -49,7 +45,14 @@ public class Preposition extends FramePhrase {
         if (types.contains(PrepType.TO)) {
             types.addAll(PrepType.to());
         }
-        return types;
+        this.valid = Collections.unmodifiableSet(types);
+    }
+
+    /**
+     * Return valid prepositions for this phrase.
+     */
+    public Set<PrepType> valid() {
+        return valid;
     }
 
     /**
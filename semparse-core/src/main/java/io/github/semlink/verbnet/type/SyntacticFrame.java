@@ -16,7 +16,9 @@
 
 package io.github.semlink.verbnet.type;
 
-import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ListMultimap;
 
 import java.util.ArrayList;
@@ -28,40 +30,47 @@ import java.util.Optional;
 import io.github.semlink.verbnet.VnFrame;
 import io.github.semlink.verbnet.syntax.VnSyntax;
 import io.github.semlink.verbnet.syntax.VnSyntaxType;
-import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.experimental.Accessors;
 
 /**
- * VerbNet syntactic frame.
+ * VerbNet syntactic frame. Frames are immutable once built, so that a single frame can be shared across alignments, e.g. through
+ * a {@link SyntacticFrameCatalog}.
  *
  * @author jgung
  */
 @Getter
 @Accessors(fluent = true)
-@NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class SyntacticFrame {
 
-    private List<FramePhrase> elements = new ArrayList<>();
-    private Map<ThematicRoleType, FramePhrase> roles = new HashMap<>();
-    private ListMultimap<VerbNetSyntaxType, FramePhrase> typeMap = LinkedListMultimap.create();
-    private VnFrame frame;
+    private final List<FramePhrase> elements;
+    private final Map<ThematicRoleType, FramePhrase> roles;
+    private final ListMultimap<VerbNetSyntaxType, FramePhrase> typeMap;
+    private final VnFrame frame;
+
+    private SyntacticFrame(List<FramePhrase> elements, Map<ThematicRoleType, FramePhrase> roles, VnFrame frame) {
+        this.elements = ImmutableList.copyOf(elements);
+        this.roles = ImmutableMap.copyOf(roles);
+        ImmutableListMultimap.Builder<VerbNetSyntaxType, FramePhrase> typeMap = ImmutableListMultimap.builder();
+        for (FramePhrase phrase : elements) {
+            typeMap.put(phrase.type(), phrase);
+        }
+        this.typeMap = typeMap.build();
+        this.frame = frame;
+    }
 
     public static SyntacticFrame of(@NonNull VnFrame frame) {
-        SyntacticFrame result = new SyntacticFrame();
-        result.frame = frame;
-
-        result.addElements(frame.syntax());
+        List<FramePhrase> elements = new ArrayList<>();
+        Map<ThematicRoleType, FramePhrase> roles = new HashMap<>();
+        addElements(frame.syntax(), elements, roles);
 
         int index = 0;
-        for (FramePhrase phrase : result.elements) {
-            phrase.index(index++);
-            result.typeMap.put(phrase.type(), phrase);
+        for (FramePhrase phrase : elements) {
+            phrase.assignIndex(index++);
         }
 
-        return result;
+        return new SyntacticFrame(elements, roles, frame);
     }
 
     public Optional<FramePhrase> role(@NonNull ThematicRoleType roleType) {
@@ -72,7 +81,8 @@ public class SyntacticFrame {
         return typeMap.get(type);
     }
 
-    private void addElements(List<VnSyntax> descList) {
+    private static void addElements(List<VnSyntax> descList, List<FramePhrase> elements,
+                                    Map<ThematicRoleType, FramePhrase> roles) {
         Optional<Preposition> preposition = Optional.empty();
         for (VnSyntax syntaxElement : descList) {
             FramePhrase element = FramePhrase.of(syntaxElement);
@@ -91,7 +101,7 @@ public class SyntacticFrame {
                 preposition = Optional.of((Preposition) element);
             } else {
                 if (element instanceof NounPhrase) {
-                    this.roles.put(((NounPhrase) element).thematicRoleType(), element);
+                    roles.put(((NounPhrase) element).thematicRoleType(), element);
                 }
                 elements.add(element);
             }
@@ -100,5 +110,4 @@ public class SyntacticFrame {
         preposition.ifPresent(elements::add);
     }
 
-
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.verbnet.type;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.semlink.verbnet.VnFrame;
+import lombok.NonNull;
+
+/**
+ * Catalog of {@link SyntacticFrame SyntacticFrames}, building each {@link VnFrame} into an immutable frame once and sharing the
+ * result across alignments and threads. Built frames are held for the lifetime of the catalog, e.g. that of its aligner.
+ *
+ * @author jgung
+ */
+public class SyntacticFrameCatalog {
+
+    private final Map<VnFrame, SyntacticFrame> frames = new ConcurrentHashMap<>();
+
+    /**
+     * Return the syntactic frame for a given VerbNet frame, building it on first use.
+     *
+     * @param frame VerbNet frame
+     * @return shared syntactic frame
+     */
+    public SyntacticFrame frame(@NonNull VnFrame frame) {
+        return frames.computeIfAbsent(frame, SyntacticFrame::of);
+    }
+
+}
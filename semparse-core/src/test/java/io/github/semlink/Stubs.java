@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Test stubs of interfaces from external libraries, such as parse trees and VerbNet classes. Stubs are dynamic proxies answering
+ * only the methods a test needs, so they do not depend on the full interfaces of the stubbed types.
+ *
+ * @author jgung
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Stubs {
+
+    /**
+     * Answer to a stubbed method call.
+     */
+    public interface Answer {
+        Object answer(Object[] args);
+    }
+
+    public static Answer value(Object value) {
+        return args -> value;
+    }
+
+    /**
+     * Stub an interface, answering methods by name, or through a delegate implementing the declaring type (e.g. {@link
+     * java.util.List}). Stubs are equal only to themselves, and other methods throw {@link UnsupportedOperationException}.
+     *
+     * @param type     stubbed interface
+     * @param answers  answers by method name
+     * @param delegate optional delegate, or null
+     * @param name     string representation of the stub
+     * @return stub
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Map<String, Answer> answers, Object delegate, String name) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return name;
+                default:
+                    break;
+            }
+            Answer answer = answers.get(method.getName());
+            if (null != answer) {
+                return answer.answer(args);
+            }
+            if (null != delegate && method.getDeclaringClass().isInstance(delegate)) {
+                return method.invoke(delegate, args);
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+        });
+    }
+
+}
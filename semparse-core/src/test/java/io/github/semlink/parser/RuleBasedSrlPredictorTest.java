@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.parser;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import io.github.semlink.type.Fields;
+import io.github.semlink.type.HasFields;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Rule-based SRL predictor test.
+ *
+ * @author jgung
+ */
+public class RuleBasedSrlPredictorTest {
+
+    private static final List<String> WORDS = Arrays.asList("Yesterday", ",", "the", "dog", "chased", "a", "cat", ".");
+
+    private static HasFields input(List<String> words, int predicateIndex) {
+        return new Fields()
+                .add("word", words)
+                .add("predicate_index", predicateIndex);
+    }
+
+    @Test
+    public void predict$Rules() {
+        assertEquals(Arrays.asList("O", "O", "B-A0", "I-A0", "B-V", "B-A1", "I-A1", "O"),
+                new RuleBasedSrlPredictor().predict(input(WORDS, 4)));
+    }
+
+    @Test
+    public void predict$RulesAtSentenceEdges() {
+        List<String> words = Arrays.asList("dogs", "chase", "cats");
+        RuleBasedSrlPredictor predictor = new RuleBasedSrlPredictor();
+        assertEquals(Arrays.asList("B-V", "B-A1", "I-A1"), predictor.predict(input(words, 0)));
+        assertEquals(Arrays.asList("B-A0", "I-A0", "B-V"), predictor.predict(input(words, 2)));
+    }
+
+    @Test
+    public void predictBatch$FixturesTakePrecedence() {
+        List<String> labels = Arrays.asList("B-AM-TMP", "O", "B-A0", "I-A0", "B-V", "B-A1", "I-A1", "O");
+        RuleBasedSrlPredictor predictor = new RuleBasedSrlPredictor().addFixture(WORDS, 4, labels);
+
+        List<List<String>> result = predictor.predictBatch(Arrays.asList(input(WORDS, 4), input(WORDS, 3)));
+        assertEquals(labels, result.get(0));
+        // fixtures are specific to a predicate
+        assertEquals(Arrays.asList("O", "O", "B-A0", "B-V", "B-A1", "I-A1", "I-A1", "O"), result.get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addFixture$LengthMismatch() {
+        new RuleBasedSrlPredictor().addFixture(WORDS, 4, Arrays.asList("B-V", "O"));
+    }
+
+    @Test
+    public void fromFixtures() throws IOException {
+        Path path = Files.createTempFile("srl-fixtures", ".tsv");
+        try {
+            Files.write(path, Arrays.asList(
+                    "1\tdogs chase cats\tB-A1 B-V B-A0",
+                    "",
+                    "0\tdogs chase cats\tB-V O O"), StandardCharsets.UTF_8);
+            RuleBasedSrlPredictor predictor = RuleBasedSrlPredictor.fromFixtures(path.toString());
+
+            List<String> words = Arrays.asList("dogs", "chase", "cats");
+            assertEquals(Arrays.asList("B-A1", "B-V", "B-A0"), predictor.predict(input(words, 1)));
+            assertEquals(Arrays.asList("B-V", "O", "O"), predictor.predict(input(words, 0)));
+            assertEquals(Arrays.asList("B-A0", "I-A0", "B-V"), predictor.predict(input(words, 2)));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void fromFixtures$InvalidLine() throws IOException {
+        Path path = Files.createTempFile("srl-fixtures", ".tsv");
+        try {
+            Files.write(path, Arrays.asList("1\tdogs chase cats"), StandardCharsets.UTF_8);
+            RuleBasedSrlPredictor.fromFixtures(path.toString());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.parser;
+
+import org.junit.Test;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import io.github.clearwsd.SensePrediction;
+import io.github.clearwsd.parser.NlpParser;
+import io.github.clearwsd.type.DepNode;
+import io.github.clearwsd.type.DepTree;
+import io.github.clearwsd.type.FeatureType;
+import io.github.semlink.Stubs.Answer;
+import io.github.semlink.semlink.PbVnMappings;
+import io.github.semlink.semlink.VerbNetAligner;
+import io.github.semlink.verbnet.VerbNetId;
+import io.github.semlink.verbnet.VnClass;
+
+import static io.github.semlink.Stubs.stub;
+import static io.github.semlink.Stubs.value;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Streaming VerbNet parser test, using stubbed dependency parsing and classification, and a {@link RuleBasedSrlPredictor}.
+ * Documents are segmented into sentences at "|", and sentences into tokens at spaces. Sentences containing "fail" fail
+ * classification, and documents starting with "!" fail segmentation.
+ *
+ * @author jgung
+ */
+public class StreamingVerbNetParserTest {
+
+    private static DepTree tree(List<String> words) {
+        List<DepNode> nodes = new ArrayList<>();
+        List<Map<String, Answer>> answers = new ArrayList<>();
+        for (int i = 0; i < words.size(); ++i) {
+            Map<FeatureType, Object> features = new EnumMap<>(FeatureType.class);
+            features.put(FeatureType.Text, words.get(i));
+            features.put(FeatureType.Lemma, words.get(i));
+            Map<String, Answer> nodeAnswers = new HashMap<>();
+            nodeAnswers.put("index", value(i));
+            nodeAnswers.put("feature", args -> features.get(args[0]));
+            answers.add(nodeAnswers);
+            nodes.add(stub(DepNode.class, nodeAnswers, null, words.get(i)));
+        }
+        // attach every word to the first
+        for (int i = 0; i < nodes.size(); ++i) {
+            answers.get(i).put("head", value(i == 0 ? null : nodes.get(0)));
+            answers.get(i).put("isRoot", value(i == 0));
+            answers.get(i).put("children", value(i == 0 ? nodes.subList(1, nodes.size()) : Collections.emptyList()));
+        }
+        Map<String, Answer> treeAnswers = new HashMap<>();
+        treeAnswers.put("root", value(nodes.get(0)));
+        treeAnswers.put("index", value(0));
+        treeAnswers.put("tokens", value(nodes));
+        return stub(DepTree.class, treeAnswers, nodes, String.join(" ", words));
+    }
+
+    private static NlpParser nlpParser() {
+        Map<String, Answer> answers = new HashMap<>();
+        answers.put("segment", args -> {
+            String document = (String) args[0];
+            if (document.startsWith("!")) {
+                throw new IllegalStateException("Unable to segment: " + document);
+            }
+            return Arrays.asList(document.split("\\|"));
+        });
+        answers.put("tokenize", args -> Arrays.asList(((String) args[0]).split(" ")));
+        answers.put("parse", args -> {
+            // vary parsing time so that sentences complete out of order
+            sleep(ThreadLocalRandom.current().nextInt(3));
+            @SuppressWarnings("unchecked")
+            List<String> tokens = (List<String>) args[0];
+            return tree(tokens);
+        });
+        return stub(NlpParser.class, answers, null, "parser");
+    }
+
+    private static VnClass verbClass() {
+        Map<String, Answer> idAnswers = new HashMap<>();
+        idAnswers.put("classId", value("1"));
+        idAnswers.put("name", value("1"));
+        Map<String, Answer> answers = new HashMap<>();
+        answers.put("verbNetId", value(stub(VerbNetId.class, idAnswers, null, "1")));
+        answers.put("ancestors", value(Collections.emptyList()));
+        answers.put("frames", value(Collections.emptyList()));
+        VnClass result = stub(VnClass.class, answers, null, "1");
+        answers.put("related", value(Collections.singletonList(result)));
+        return result;
+    }
+
+    /**
+     * Detects a predicate at the first word of each sentence.
+     */
+    private static VnPredicateDetector detector() {
+        VnClass verbClass = verbClass();
+        return tree -> {
+            if (tree.toString().contains("fail")) {
+                throw new IllegalArgumentException("Unable to classify: " + tree);
+            }
+            Map<String, Answer> answers = new HashMap<>();
+            answers.put("index", value(0));
+            answers.put("id", value("1"));
+            answers.put("originalText", value(tree.get(0).feature(FeatureType.Text)));
+            answers.put("sense", value(verbClass));
+            @SuppressWarnings("unchecked")
+            SensePrediction<VnClass> sense = stub(SensePrediction.class, answers, null, "sense");
+            return Collections.singletonList(sense);
+        };
+    }
+
+    private static StreamingVerbNetParser streamingParser(int maxInFlight) {
+        VerbNetParser parser = new VerbNetParser(detector(), nlpParser(),
+                VerbNetParser.pbRoleLabeler(new RuleBasedSrlPredictor()),
+                new VerbNetAligner(new PbVnMappings(Collections.emptyList(), null)));
+        return new StreamingVerbNetParser(parser, 4, 2, 2, maxInFlight);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void parse$InputOrder() {
+        List<String> documents = IntStream.range(0, 50)
+                .mapToObj(i -> "a" + i + " saw it|b" + i + " left")
+                .collect(Collectors.toList());
+        try (StreamingVerbNetParser parser = streamingParser(8);
+             Stream<VerbNetParse> parses = parser.parse(documents.iterator())) {
+            List<VerbNetParse> result = parses.collect(Collectors.toList());
+
+            List<String> expected = documents.stream()
+                    .flatMap(document -> Arrays.stream(document.split("\\|")))
+                    .collect(Collectors.toList());
+            assertEquals(expected, result.stream()
+                    .map(parse -> String.join(" ", parse.tokens()))
+                    .collect(Collectors.toList()));
+            for (VerbNetParse parse : result) {
+                assertEquals(1, parse.props().size());
+            }
+        }
+    }
+
+    @Test
+    public void parse$BoundsSentencesInFlight() {
+        AtomicInteger read = new AtomicInteger();
+        Iterator<String> documents = new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return read.get() < 20;
+            }
+
+            @Override
+            public String next() {
+                return "s" + read.getAndIncrement() + " saw it";
+            }
+        };
+        try (StreamingVerbNetParser parser = streamingParser(3);
+             Stream<VerbNetParse> parses = parser.parse(documents)) {
+            Iterator<VerbNetParse> iterator = parses.iterator();
+
+            // without a consumer, the reader fills the queue, then blocks with one more sentence
+            long deadline = System.currentTimeMillis() + 5000;
+            while (read.get() < 4 && System.currentTimeMillis() < deadline) {
+                sleep(5);
+            }
+            sleep(100);
+            assertEquals(4, read.get());
+
+            assertTrue(iterator.hasNext());
+            assertEquals("s0", iterator.next().tokens().get(0));
+            int consumed = 1;
+            while (iterator.hasNext()) {
+                iterator.next();
+                ++consumed;
+            }
+            assertEquals(20, consumed);
+        }
+    }
+
+    @Test
+    public void parse$ReportsFailures() {
+        List<String> documents = Arrays.asList("a saw it|fail here", "!b saw it", "c saw it");
+        List<SimpleEntry<String, Class<?>>> errors = new ArrayList<>();
+        try (StreamingVerbNetParser parser = streamingParser(8);
+             Stream<VerbNetParse> parses = parser.parse(documents.iterator(),
+                     (input, error) -> errors.add(new SimpleEntry<>(input, error.getClass())))) {
+            List<String> result = parses
+                    .map(parse -> parse.tokens().get(0))
+                    .collect(Collectors.toList());
+
+            assertEquals(Arrays.asList("a", "c"), result);
+            assertEquals(Arrays.asList(
+                    new SimpleEntry<>("fail here", IllegalArgumentException.class),
+                    new SimpleEntry<>("!b saw it", IllegalStateException.class)), errors);
+        }
+    }
+
+}
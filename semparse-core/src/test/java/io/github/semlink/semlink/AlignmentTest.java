@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.semlink;
+
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.ListMultimap;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Alignment test.
+ *
+ * @author jgung
+ */
+public class AlignmentTest {
+
+    private static List<AlignPhrase> phrases(int count) {
+        List<AlignPhrase> phrases = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            phrases.add(new AlignPhrase(i));
+        }
+        return phrases;
+    }
+
+    private static AlignPhrase firstSource(ListMultimap<AlignPhrase, AlignPhrase> expected, AlignPhrase target) {
+        for (Map.Entry<AlignPhrase, AlignPhrase> entry : expected.entries()) {
+            if (entry.getValue().equals(target)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void add$MatchesMultimap() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 5000; ++trial) {
+            List<AlignPhrase> sources = phrases(1 + random.nextInt(6));
+            List<AlignPhrase> targets = phrases(1 + random.nextInt(6));
+            // phrases outside of the alignment may still be added, but are not counted
+            List<AlignPhrase> alignedSources = sources.subList(0, sources.size() - random.nextInt(2));
+            List<AlignPhrase> alignedTargets = targets.subList(0, targets.size() - random.nextInt(2));
+
+            Alignment<AlignPhrase, AlignPhrase> alignment = Alignment.of(alignedSources, alignedTargets);
+            ListMultimap<AlignPhrase, AlignPhrase> expected = LinkedListMultimap.create();
+            for (int op = 0; op < 15; ++op) {
+                AlignPhrase source = sources.get(random.nextInt(sources.size()));
+                AlignPhrase target = targets.get(random.nextInt(targets.size()));
+                if (random.nextBoolean()) {
+                    alignment.add(source, target);
+                    expected.put(source, target);
+                } else {
+                    alignment.remove(source, target);
+                    expected.remove(source, target);
+                }
+
+                for (AlignPhrase phrase : sources) {
+                    assertEquals(expected.containsKey(phrase), alignment.alignedSource(phrase));
+                    assertEquals(expected.get(phrase), alignment.alignedPhrases(phrase));
+                }
+                for (AlignPhrase phrase : targets) {
+                    assertEquals(expected.containsValue(phrase), alignment.alignedTarget(phrase));
+                    assertEquals(firstSource(expected, phrase), alignment.getSource(phrase));
+                }
+                for (boolean aligned : new boolean[]{true, false}) {
+                    List<AlignPhrase> sourcePhrases = alignedSources.stream()
+                            .filter(phrase -> expected.containsKey(phrase) == aligned)
+                            .collect(Collectors.toList());
+                    List<AlignPhrase> targetPhrases = alignedTargets.stream()
+                            .filter(phrase -> expected.containsValue(phrase) == aligned)
+                            .collect(Collectors.toList());
+                    assertEquals(sourcePhrases, alignment.sourcePhrases(aligned));
+                    assertEquals(targetPhrases, alignment.targetPhrases(aligned));
+                    assertEquals(sourcePhrases.size(), alignment.sourceCount(aligned));
+                    assertEquals(targetPhrases.size(), alignment.targetCount(aligned));
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.semlink;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import io.github.clearwsd.type.DepNode;
+import io.github.clearwsd.type.DepTree;
+import io.github.clearwsd.type.FeatureType;
+import io.github.semlink.Stubs.Answer;
+import io.github.semlink.app.DefaultChunking;
+import io.github.semlink.app.Span;
+import io.github.semlink.parser.LemmaOverlay;
+import io.github.semlink.parser.Proposition;
+import io.github.semlink.propbank.frames.PbRole;
+import io.github.semlink.propbank.frames.Roles;
+import io.github.semlink.propbank.frames.Roleset;
+import io.github.semlink.propbank.type.ArgNumber;
+import io.github.semlink.propbank.type.PropBankArg;
+import io.github.semlink.semlink.PbVnMappings.MappedRoleset;
+import io.github.semlink.semlink.aligner.PbVnAlignment;
+import io.github.semlink.verbnet.VerbNetId;
+import io.github.semlink.verbnet.VnClass;
+import io.github.semlink.verbnet.VnFrame;
+import io.github.semlink.verbnet.VnThematicRole;
+import io.github.semlink.verbnet.restrictions.VnRestrictions;
+import io.github.semlink.verbnet.syntax.VnLex;
+import io.github.semlink.verbnet.syntax.VnNounPhrase;
+import io.github.semlink.verbnet.syntax.VnPrep;
+import io.github.semlink.verbnet.syntax.VnSyntax;
+import io.github.semlink.verbnet.syntax.VnSyntaxType;
+
+import static io.github.semlink.Stubs.stub;
+import static io.github.semlink.Stubs.value;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * VerbNet aligner test, comparing alternative frame searches against sequential exhaustive search over random propositions and classes.
+ * Parses and VerbNet classes are {@link io.github.semlink.Stubs stubbed}, answering only the methods used during alignment.
+ *
+ * @author jgung
+ */
+public class VerbNetAlignerTest {
+
+    private static final int SCENARIOS = 1000;
+
+    private static final String[][] WORDS = {
+            {"he", "PRP"}, {"it", "PRP"}, {"John", "NNP"}, {"book", "NN"}, {"houses", "NNS"}, {"to", "TO"}, {"to", "IN"},
+            {"from", "IN"}, {"in", "IN"}, {"with", "IN"}, {"by", "IN"}, {"into", "IN"}, {"3", "CD"}, {"much", "JJ"},
+            {"where", "WRB"}, {"that", "IN"}, {"said", "VBD"}, {"quickly", "RB"}, {"yesterday", "NN"}, {"red", "JJ"}};
+    private static final String[] DEPS = {"nsubj", "dobj", "iobj", "prep", "pobj", "case", "nmod", "advmod", "amod", "det",
+            "ccomp", "xcomp", "advcl", "acl", "csubj", "mark", "compound"};
+    private static final String[] ARGUMENTS = {"A0", "A1", "A2", "A3", "A4", "AM-LOC", "AM-TMP", "AM-DIR", "AM-MNR", "C-A1",
+            "R-A0"};
+    private static final String[] ROLES = {"Agent", "Theme", "Patient", "Recipient", "Destination", "Source", "Location",
+            "Instrument", "Topic", "Experiencer", "Stimulus", "Beneficiary", "Attribute", "Causer", "Pivot", "Initial_Location",
+            "Product", "Material"};
+    private static final String[] PREPOSITIONS = {"to", "from", "in", "with", "by", "into", "at", "on", "for"};
+    private static final String[] SELECTIONAL = {"animate", "concrete", "location", "human", "dest_dir", "src",
+            "organization"};
+    private static final String[] SYNTACTIC = {"that_comp", "ac_to_inf", "sc_ing", "plural"};
+    private static final String[] DESCRIPTIONS = {"0.1", "0.2", "1.1", "2.3", "8.1"};
+    private static final ArgNumber[] NUMBERS = {ArgNumber.A0, ArgNumber.A1, ArgNumber.A2, ArgNumber.A3, ArgNumber.A4};
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static DepTree tree(Random random, int length) {
+        List<DepNode> nodes = new ArrayList<>();
+        List<Map<String, Answer>> answers = new ArrayList<>();
+        for (int i = 0; i < length; ++i) {
+            String[] word = pick(random, WORDS);
+            Map<FeatureType, Object> features = new EnumMap<>(FeatureType.class);
+            features.put(FeatureType.Text, word[0]);
+            features.put(FeatureType.Lemma, word[0].toLowerCase());
+            features.put(FeatureType.Pos, word[1]);
+            features.put(FeatureType.Dep, pick(random, DEPS));
+            Map<String, Answer> nodeAnswers = new HashMap<>();
+            nodeAnswers.put("index", value(i));
+            nodeAnswers.put("feature", args -> features.get(args[0]));
+            answers.add(nodeAnswers);
+            nodes.add(stub(DepNode.class, nodeAnswers, null, word[0]));
+        }
+
+        // attach each node to a random node that is already attached
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < length; ++i) {
+            order.add(i);
+        }
+        Collections.shuffle(order, random);
+        DepNode root = nodes.get(order.get(0));
+        List<List<DepNode>> children = new ArrayList<>();
+        for (int i = 0; i < length; ++i) {
+            children.add(new ArrayList<>());
+        }
+        DepNode[] heads = new DepNode[length];
+        for (int i = 1; i < length; ++i) {
+            int head = order.get(random.nextInt(i));
+            heads[order.get(i)] = nodes.get(head);
+            children.get(head).add(nodes.get(order.get(i)));
+        }
+        for (int i = 0; i < length; ++i) {
+            DepNode head = heads[i];
+            List<DepNode> nodeChildren = children.get(i);
+            nodeChildren.sort((a, b) -> Integer.compare(a.index(), b.index()));
+            answers.get(i).put("head", value(head));
+            answers.get(i).put("isRoot", value(null == head));
+            answers.get(i).put("children", value(nodeChildren));
+        }
+
+        Map<String, Answer> treeAnswers = new HashMap<>();
+        treeAnswers.put("root", value(root));
+        treeAnswers.put("index", value(0));
+        treeAnswers.put("tokens", value(nodes));
+        return stub(DepTree.class, treeAnswers, nodes, "tree");
+    }
+
+    private static VnRestrictions<String> restrictions(Random random, String[] values) {
+        Set<String> include = new HashSet<>();
+        Set<String> exclude = new HashSet<>();
+        (random.nextBoolean() ? include : exclude).add(pick(random, values));
+        Map<String, Answer> answers = new HashMap<>();
+        answers.put("include", value(include));
+        answers.put("exclude", value(exclude));
+        @SuppressWarnings("unchecked")
+        VnRestrictions<String> result = stub(VnRestrictions.class, answers, null, "restrictions");
+        return result;
+    }
+
+    private static List<VnRestrictions<String>> restrictionList(Random random, String[] values) {
+        return random.nextInt(3) == 0 ? Collections.singletonList(restrictions(random, values)) : Collections.emptyList();
+    }
+
+    private static VnSyntax syntax(Random random, VnSyntaxType type) {
+        Map<String, Answer> answers = new HashMap<>();
+        answers.put("type", value(type));
+        switch (type) {
+            case NP:
+                String role = pick(random, ROLES);
+                answers.put("thematicRole", value(role));
+                answers.put("syntacticRestrictions", value(restrictionList(random, SYNTACTIC)));
+                answers.put("selectionalRestrictions", value(restrictionList(random, SELECTIONAL)));
+                return stub(VnNounPhrase.class, answers, null, "NP[" + role + "]");
+            case PREP:
+                List<String> types = random.nextBoolean() ? Collections.singletonList(pick(random, PREPOSITIONS))
+                        : Arrays.asList(pick(random, PREPOSITIONS), pick(random, PREPOSITIONS));
+                answers.put("types", value(types));
+                answers.put("restrictions", value(Collections.emptyList()));
+                return stub(VnPrep.class, answers, null, "PREP" + types);
+            case LEX:
+                answers.put("value", value(random.nextBoolean() ? "that" : "it"));
+                return stub(VnLex.class, answers, null, "LEX");
+            default:
+                return stub(VnSyntax.class, answers, null, type.name());
+        }
+    }
+
+    private static VnFrame frame(Random random) {
+        List<VnSyntax> syntax = new ArrayList<>();
+        syntax.add(syntax(random, VnSyntaxType.VERB));
+        int others = 1 + random.nextInt(5);
+        for (int i = 0; i < others; ++i) {
+            int choice = random.nextInt(10);
+            VnSyntaxType type = choice < 5 ? VnSyntaxType.NP : choice < 7 ? VnSyntaxType.PREP : choice < 8 ? VnSyntaxType.LEX
+                    : choice < 9 ? VnSyntaxType.ADV : VnSyntaxType.ADJ;
+            syntax.add(random.nextInt(syntax.size() + 1), syntax(random, type));
+        }
+        String description = pick(random, DESCRIPTIONS);
+        Map<String, Answer> answers = new HashMap<>();
+        answers.put("syntax", value(syntax));
+        answers.put("descriptionNumber", value(description));
+        answers.put("primary", value(description));
+        answers.put("predicates", value(Collections.emptyList()));
+        return stub(VnFrame.class, answers, null, "frame-" + description);
+    }
+
+    private static VnClass verbClass(Random random, String id, List<VnClass> parents) {
+        List<VnFrame> frames = new ArrayList<>();
+        int count = 1 + random.nextInt(6);
+        for (int i = 0; i < count; ++i) {
+            frames.add(frame(random));
+        }
+        Map<String, Answer> idAnswers = new HashMap<>();
+        idAnswers.put("classId", value(id));
+        idAnswers.put("name", value(id));
+        Map<String, Answer> answers = new HashMap<>();
+        answers.put("verbNetId", value(stub(VerbNetId.class, idAnswers, null, id)));
+        answers.put("frames", value(frames));
+        answers.put("roles", value(Arrays.asList(role(random), role(random))));
+        VnClass result = stub(VnClass.class, answers, null, id);
+        List<VnClass> ancestors = new ArrayList<>();
+        ancestors.add(result);
+        ancestors.addAll(parents);
+        answers.put("related", value(Collections.singletonList(result)));
+        answers.put("ancestors", args -> (Boolean) args[0] ? ancestors : parents);
+        return result;
+    }
+
+    private static VnThematicRole role(Random random) {
+        return stub(VnThematicRole.class, Collections.singletonMap("type", value(pick(random, ROLES))), null, "role");
+    }
+
+    private static MappedRoleset roleset(Random random, String id) {
+        List<PbRole> roles = new ArrayList<>();
+        Map<ArgNumber, java.util.Collection<String>> mappings = new EnumMap<>(ArgNumber.class);
+        for (ArgNumber number : NUMBERS) {
+            if (random.nextBoolean()) {
+                roles.add(new PbRole().number(number));
+            }
+            if (random.nextInt(3) == 0) {
+                mappings.put(number, Collections.singletonList(pick(random, ROLES)));
+            }
+        }
+        return new MappedRoleset()
+                .roleset(new Roleset().id(id).roles(new Roles().roles(roles)))
+                .roleMappings(mappings);
+    }
+
+    /**
+     * Random proposition over a random parse, with a random class hierarchy and, optionally, mapped rolesets.
+     */
+    private static class Scenario {
+
+        private final DepTree tree;
+        private final int relIndex;
+        private final VnClass verbClass;
+        private final List<Span<String>> arguments = new ArrayList<>();
+
+        private Scenario(Random random, PbVnMappings mappings) {
+            int length = 2 + random.nextInt(10);
+            tree = tree(random, length);
+            relIndex = random.nextInt(length);
+            for (int i = 0; i < length; ) {
+                if (i == relIndex) {
+                    arguments.add(new Span<>("V", i, i));
+                    ++i;
+                } else if (random.nextBoolean()) {
+                    int end = i + random.nextInt(3);
+                    if (i < relIndex) {
+                        end = Math.min(end, relIndex - 1);
+                    }
+                    end = Math.min(end, length - 1);
+                    arguments.add(new Span<>(pick(random, ARGUMENTS), i, end));
+                    i = end + 1;
+                } else {
+                    ++i;
+                }
+            }
+            List<VnClass> parents = random.nextBoolean()
+                    ? Collections.singletonList(verbClass(random, "parent", Collections.emptyList()))
+                    : Collections.emptyList();
+            verbClass = verbClass(random, "class", parents);
+
+            String lemma = tree.get(relIndex).feature(FeatureType.Lemma);
+            Map<String, List<MappedRoleset>> classRolesets = new HashMap<>();
+            int rolesets = random.nextInt(3);
+            for (int i = 0; i < rolesets; ++i) {
+                classRolesets.computeIfAbsent("class", id -> new ArrayList<>()).add(roleset(random, lemma + ".0" + i));
+            }
+            mappings.lemmaClassRolesetMap().clear();
+            mappings.lemmaClassRolesetMap().put(lemma, classRolesets);
+        }
+
+        /**
+         * Create a new proposition, as alignment may adjust the numbers of its arguments.
+         */
+        private Proposition<VnClass, PropBankArg> proposition() {
+            List<Span<PropBankArg>> spans = arguments.stream()
+                    .map(span -> new Span<>(PropBankArg.fromLabel(span.label()), span.startIndex(), span.endIndex()))
+                    .collect(Collectors.toList());
+            return new Proposition<>(relIndex, verbClass, new DefaultChunking<>(spans));
+        }
+
+    }
+
+    private static List<ArgNumber> numbers(Proposition<VnClass, PropBankArg> proposition) {
+        return proposition.arguments().spans().stream()
+                .map(span -> span.label().getNumber())
+                .collect(Collectors.toList());
+    }
+
+    private static String describe(Optional<PbVnAlignment> alignment) {
+        return alignment.map(aligned -> aligned.frame().frame().toString() + "\n" + aligned.alignment().toString())
+                .orElse("");
+    }
+
+    private static void assertSameSelection(VerbNetAligner expected, VerbNetAligner actual, PbVnMappings mappings) {
+        Random random = new Random(13);
+        for (int i = 0; i < SCENARIOS; ++i) {
+            Scenario scenario = new Scenario(random, mappings);
+
+            Proposition<VnClass, PropBankArg> expectedProp = scenario.proposition();
+            Optional<PbVnAlignment> expectedAlignment = expected.align(expectedProp, scenario.tree, LemmaOverlay.empty());
+            Proposition<VnClass, PropBankArg> actualProp = scenario.proposition();
+            Optional<PbVnAlignment> actualAlignment = actual.align(actualProp, scenario.tree, LemmaOverlay.empty());
+
+            assertTrue(expectedAlignment.isPresent());
+            assertTrue(actualAlignment.isPresent());
+            assertTrue(expectedAlignment.get().frame().frame() == actualAlignment.get().frame().frame());
+            assertEquals(describe(expectedAlignment), describe(actualAlignment));
+            assertEquals(expectedAlignment.get().rolesetAlignmentCount(), actualAlignment.get().rolesetAlignmentCount());
+            assertEquals(numbers(expectedProp), numbers(actualProp));
+        }
+    }
+
+    @Test
+    public void align$BranchAndBoundMatchesExhaustive() {
+        PbVnMappings mappings = new PbVnMappings(Collections.emptyList(), null);
+        assertSameSelection(new VerbNetAligner(mappings), new VerbNetAligner(mappings).branchAndBound(true), mappings);
+    }
+
+    @Test
+    public void align$ParallelMatchesSequential() {
+        PbVnMappings mappings = new PbVnMappings(Collections.emptyList(), null);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertSameSelection(new VerbNetAligner(mappings),
+                    new VerbNetAligner(mappings).alignmentPool(pool).parallelThreshold(1), mappings);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
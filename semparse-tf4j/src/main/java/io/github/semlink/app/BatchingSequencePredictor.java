@@ -0,0 +1,234 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link SequencePredictor} that gathers inputs from concurrent callers into shared batches before delegating to a wrapped
+ * predictor. A batch is dispatched as soon as it reaches the maximum batch size, or once its oldest input has waited for the
+ * maximum delay. Each row of the result is routed back to the caller that submitted it.
+ *
+ * @param <T> input type
+ * @author jgung
+ */
+@Slf4j
+public class BatchingSequencePredictor<T> implements SequencePredictor<T> {
+
+    private final SequencePredictor<T> predictor;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+
+    private final BlockingQueue<PendingInput<T>> queue = new LinkedBlockingQueue<>();
+    private final List<Thread> dispatchers = new ArrayList<>();
+    private volatile boolean closed;
+
+    /**
+     * Initialize a batching predictor around a given predictor.
+     *
+     * @param predictor    wrapped predictor
+     * @param maxBatchSize maximum number of inputs per call to the wrapped predictor
+     * @param maxWait      maximum time an input may wait for other inputs before its batch is dispatched
+     * @param unit         time unit of maximum wait
+     */
+    public BatchingSequencePredictor(@NonNull SequencePredictor<T> predictor, int maxBatchSize, long maxWait,
+                                     @NonNull TimeUnit unit) {
+        this(predictor, maxBatchSize, maxWait, unit, 1);
+    }
+
+    /**
+     * Initialize a batching predictor around a given predictor, dispatching up to a given number of batches concurrently. This
+     * allows a predictor backed by several sessions to run several batches in parallel.
+     *
+     * @param predictor    wrapped predictor
+     * @param maxBatchSize maximum number of inputs per call to the wrapped predictor
+     * @param maxWait      maximum time an input may wait for other inputs before its batch is dispatched
+     * @param unit         time unit of maximum wait
+     * @param dispatchers  number of threads dispatching batches to the wrapped predictor
+     */
+    public BatchingSequencePredictor(@NonNull SequencePredictor<T> predictor, int maxBatchSize, long maxWait,
+                                     @NonNull TimeUnit unit, int dispatchers) {
+        Preconditions.checkArgument(maxBatchSize > 0, "Maximum batch size must be positive: %s", maxBatchSize);
+        Preconditions.checkArgument(maxWait >= 0, "Maximum wait must be non-negative: %s", maxWait);
+        Preconditions.checkArgument(dispatchers > 0, "Number of dispatchers must be positive: %s", dispatchers);
+        this.predictor = predictor;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+        for (int i = 0; i < dispatchers; ++i) {
+            Thread dispatcher = new Thread(this::dispatchLoop, "batching-predictor-" + i);
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+            this.dispatchers.add(dispatcher);
+        }
+    }
+
+    @Override
+    public List<String> predict(@NonNull T input) {
+        return await(submit(input));
+    }
+
+    @Override
+    public List<List<String>> predictBatch(@NonNull List<T> inputs) {
+        List<CompletableFuture<List<String>>> futures = inputs.stream()
+                .map(this::submit)
+                .collect(Collectors.toList());
+        return futures.stream()
+                .map(BatchingSequencePredictor::await)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CompletableFuture<List<List<String>>> predictBatchAsync(@NonNull List<T> inputs) {
+        List<CompletableFuture<List<String>>> futures = inputs.stream()
+                .map(this::submit)
+                .collect(Collectors.toList());
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> futures.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Warm up the wrapped predictor directly, so that the exact batch shape is preserved rather than merged with other inputs.
+     */
+    @Override
+    public void warmUp(@NonNull List<T> inputs) {
+        predictor.warmUp(inputs);
+    }
+
+    /**
+     * Queue a single input for prediction.
+     *
+     * @param input target input
+     * @return future of the input's predicted labels
+     */
+    public CompletableFuture<List<String>> submit(@NonNull T input) {
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new IllegalStateException("Predictor has been closed"));
+            return future;
+        }
+        PendingInput<T> pending = new PendingInput<>(input, future, System.nanoTime());
+        queue.add(pending);
+        if (closed && queue.remove(pending)) {
+            future.completeExceptionally(new IllegalStateException("Predictor has been closed"));
+        }
+        return future;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        dispatchers.forEach(Thread::interrupt);
+        try {
+            for (Thread dispatcher : dispatchers) {
+                dispatcher.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingInput<T>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        fail(remaining, new IllegalStateException("Predictor has been closed"));
+        predictor.close();
+    }
+
+    private void dispatchLoop() {
+        while (!closed) {
+            List<PendingInput<T>> batch = new ArrayList<>(maxBatchSize);
+            try {
+                nextBatch(batch);
+            } catch (InterruptedException e) {
+                // inputs already taken from the queue would otherwise never complete
+                fail(batch, new IllegalStateException("Predictor has been closed"));
+                break;
+            }
+            dispatch(batch);
+        }
+    }
+
+    private void nextBatch(List<PendingInput<T>> batch) throws InterruptedException {
+        PendingInput<T> first = queue.take();
+        batch.add(first);
+        long deadline = first.submitted + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            PendingInput<T> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void dispatch(List<PendingInput<T>> batch) {
+        try {
+            List<List<String>> results = predictor.predictBatch(batch.stream()
+                    .map(pending -> pending.input)
+                    .collect(Collectors.toList()));
+            Preconditions.checkState(results.size() == batch.size(),
+                    "Predictor produced an unexpected number of batches: %s vs. %s", results.size(), batch.size());
+            for (int i = 0; i < batch.size(); ++i) {
+                batch.get(i).future.complete(results.get(i));
+            }
+        } catch (Throwable e) {
+            // keep dispatching after any failure, so that later inputs are not left waiting
+            log.warn("Error while predicting batch of size {}", batch.size(), e);
+            fail(batch, e);
+        }
+    }
+
+    private static <T> void fail(List<PendingInput<T>> batch, Throwable error) {
+        batch.forEach(pending -> pending.future.completeExceptionally(error));
+    }
+
+    private static List<String> await(CompletableFuture<List<String>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class PendingInput<T> {
+        private final T input;
+        private final CompletableFuture<List<String>> future;
+        private final long submitted;
+    }
+
+}
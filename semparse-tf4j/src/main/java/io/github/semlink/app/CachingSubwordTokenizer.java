@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.List;
+
+import lombok.RequiredArgsConstructor;
+import lombok.NonNull;
+
+/**
+ * {@link SubwordTokenizer} decorator that caches subword tokens and vocabulary IDs of individual words. Intended for callers
+ * that tokenize one word at a time, such as BERT feature extractors, where the same words recur across predicates and requests.
+ * The cache is bounded and safe for concurrent use. Each word is tokenized once per cache miss, and its IDs are looked up from
+ * its tokens the first time they are requested, so that {@link #tokenize(String)} does not depend on the vocabulary.
+ *
+ * @author jgung
+ */
+public class CachingSubwordTokenizer implements SubwordTokenizer {
+
+    private static final int DEFAULT_MAX_SIZE = 100000;
+
+    @RequiredArgsConstructor
+    private static class CachedWord {
+        private final List<String> tokens;
+        private volatile int[] ids;
+    }
+
+    private final SubwordTokenizer tokenizer;
+    private final LoadingCache<String, CachedWord> cache;
+
+    /**
+     * Initialize a caching tokenizer around a given tokenizer.
+     *
+     * @param tokenizer wrapped tokenizer
+     * @param maxSize   maximum number of cached words
+     */
+    public CachingSubwordTokenizer(@NonNull SubwordTokenizer tokenizer, long maxSize) {
+        this.tokenizer = tokenizer;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build(new CacheLoader<String, CachedWord>() {
+                    @Override
+                    public CachedWord load(@NonNull String word) {
+                        return new CachedWord(ImmutableList.copyOf(tokenizer.tokenize(word)));
+                    }
+                });
+    }
+
+    public CachingSubwordTokenizer(@NonNull SubwordTokenizer tokenizer) {
+        this(tokenizer, DEFAULT_MAX_SIZE);
+    }
+
+    @Override
+    public List<Integer> convertTokensToIds(@NonNull List<String> tokens) {
+        return tokenizer.convertTokensToIds(tokens);
+    }
+
+    @Override
+    public List<String> tokenize(@NonNull String text) {
+        return get(text).tokens;
+    }
+
+    @Override
+    public int[] convertTokensToIdArray(@NonNull List<String> tokens) {
+        return tokenizer.convertTokensToIdArray(tokens);
+    }
+
+    /**
+     * Returns the cached IDs of a given word. The returned array is shared between callers and must not be modified.
+     */
+    @Override
+    public int[] tokenizeToIds(@NonNull String text) {
+        CachedWord word = get(text);
+        int[] ids = word.ids;
+        if (null == ids) {
+            // concurrent callers may both look up IDs, but always compute the same result
+            ids = tokenizer.convertTokensToIdArray(word.tokens);
+            word.ids = ids;
+        }
+        return ids;
+    }
+
+    private CachedWord get(String text) {
+        try {
+            return cache.getUnchecked(text);
+        } catch (UncheckedExecutionException e) {
+            // rethrow failures of the wrapped tokenizer as they would be thrown without the cache
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    /**
+     * Returns hit and miss statistics for the word cache.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import org.tensorflow.Session;
+import org.tensorflow.Tensor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.github.semlink.extractor.DenseSequenceExtractor;
+import io.github.semlink.tensor.DenseExample;
+import io.github.semlink.tensor.TensorList;
+import io.github.semlink.type.HasFields;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+
+/**
+ * {@link FeedStrategy} that feeds primitive int64 features directly to named placeholders as dense tensors. Sequence features
+ * are right-padded with zeros to the longest sequence in each batch and fed as {@code [batch, length]} tensors, while context
+ * features are fed as {@code [batch]} tensors.
+ *
+ * @author jgung
+ */
+@AllArgsConstructor
+public class DenseFeedStrategy implements FeedStrategy<DenseExample> {
+
+    private DenseSequenceExtractor featureExtractor;
+    /**
+     * Mapping from feature names to placeholder op names.
+     */
+    private Map<String, String> placeholders;
+
+    @Override
+    public DenseExample extract(@NonNull HasFields input) {
+        return featureExtractor.extractDense(input);
+    }
+
+    @Override
+    public List<DenseExample> extract(@NonNull List<HasFields> inputs) {
+        return featureExtractor.extractDense(inputs);
+    }
+
+    @Override
+    public int length(@NonNull DenseExample features) {
+        return features.length();
+    }
+
+    @Override
+    public TensorList feed(@NonNull Session.Runner runner, @NonNull List<DenseExample> batch) {
+        TensorList tensors = new TensorList(new ArrayList<>());
+        try {
+            for (Map.Entry<String, String> placeholder : placeholders.entrySet()) {
+                Tensor<Long> tensor = Tensor.create(batchFeature(placeholder.getKey(), batch), Long.class);
+                tensors.add(tensor);
+                runner.feed(placeholder.getValue(), tensor);
+            }
+        } catch (RuntimeException e) {
+            tensors.close();
+            throw e;
+        }
+        return tensors;
+    }
+
+    static Object batchFeature(String key, List<DenseExample> batch) {
+        DenseExample first = batch.get(0);
+        if (first.sequenceFeatures().containsKey(key)) {
+            int maxLength = 0;
+            for (DenseExample example : batch) {
+                maxLength = Math.max(maxLength, sequenceFeature(key, example).length);
+            }
+            long[][] values = new long[batch.size()][maxLength];
+            for (int i = 0; i < batch.size(); ++i) {
+                long[] sequence = sequenceFeature(key, batch.get(i));
+                System.arraycopy(sequence, 0, values[i], 0, sequence.length);
+            }
+            return values;
+        } else if (first.contextFeatures().containsKey(key)) {
+            long[] values = new long[batch.size()];
+            for (int i = 0; i < batch.size(); ++i) {
+                Long value = batch.get(i).contextFeatures().get(key);
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing context feature: " + key);
+                }
+                values[i] = value;
+            }
+            return values;
+        }
+        throw new IllegalArgumentException("No feature found for placeholder input: " + key);
+    }
+
+    private static long[] sequenceFeature(String key, DenseExample example) {
+        long[] values = example.sequenceFeatures().get(key);
+        if (values == null) {
+            throw new IllegalArgumentException("Missing sequence feature: " + key);
+        }
+        return values;
+    }
+
+}
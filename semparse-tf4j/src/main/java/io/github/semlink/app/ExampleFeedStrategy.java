@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import org.tensorflow.Session;
+import org.tensorflow.Tensor;
+import org.tensorflow.example.SequenceExample;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.github.semlink.extractor.SequenceExampleExtractor;
+import io.github.semlink.tensor.TensorList;
+import io.github.semlink.type.HasFields;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import static io.github.semlink.tensor.Tensors.batchExamples;
+import static io.github.semlink.tensor.Tensors.sequenceLength;
+
+/**
+ * {@link FeedStrategy} that feeds serialized {@link SequenceExample SequenceExamples} to a single string input, to be parsed
+ * within the graph.
+ *
+ * @author jgung
+ */
+@Accessors(fluent = true)
+public class ExampleFeedStrategy implements FeedStrategy<SequenceExample> {
+
+    private static final List<String> LENGTH_KEYS = Arrays.asList("bert_len", "len");
+
+    private SequenceExampleExtractor featureExtractor;
+    private String inputName;
+
+    /**
+     * Context feature keys used to read sequence lengths, in order of preference.
+     */
+    @Setter
+    private List<String> lengthKeys = LENGTH_KEYS;
+
+    public ExampleFeedStrategy(@NonNull SequenceExampleExtractor featureExtractor, @NonNull String inputName) {
+        this.featureExtractor = featureExtractor;
+        this.inputName = inputName;
+    }
+
+    @Override
+    public SequenceExample extract(@NonNull HasFields input) {
+        return featureExtractor.extractSequence(input);
+    }
+
+    @Override
+    public List<SequenceExample> extract(@NonNull List<HasFields> inputs) {
+        return featureExtractor.extractSequences(inputs);
+    }
+
+    @Override
+    public int length(@NonNull SequenceExample features) {
+        return sequenceLength(features, lengthKeys);
+    }
+
+    @Override
+    public TensorList feed(@NonNull Session.Runner runner, @NonNull List<SequenceExample> batch) {
+        Tensor<?> inputTensor = Tensor.create(batchExamples(batch), String.class);
+        runner.feed(inputName, inputTensor);
+        return TensorList.of(Collections.singletonList(inputTensor));
+    }
+
+}
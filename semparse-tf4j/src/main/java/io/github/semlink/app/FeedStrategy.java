@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import org.tensorflow.Session;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.github.semlink.tensor.TensorList;
+import io.github.semlink.type.HasFields;
+import lombok.NonNull;
+
+/**
+ * Strategy for converting inputs to features and feeding batches of features to a Tensorflow session.
+ *
+ * @param <E> extracted feature type
+ * @author jgung
+ */
+public interface FeedStrategy<E> {
+
+    /**
+     * Extract features for a single input.
+     *
+     * @param input input fields
+     * @return extracted features
+     */
+    E extract(@NonNull HasFields input);
+
+    /**
+     * Extract features for a batch of inputs.
+     *
+     * @param inputs input fields
+     * @return extracted features, in input order
+     */
+    default List<E> extract(@NonNull List<HasFields> inputs) {
+        return inputs.stream()
+                .map(this::extract)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the sequence length of extracted features, used to group inputs of similar length.
+     *
+     * @param features extracted features
+     * @return sequence length
+     */
+    int length(@NonNull E features);
+
+    /**
+     * Create input tensors for a batch of features and feed them to a session runner.
+     *
+     * @param runner session runner
+     * @param batch  batch of extracted features
+     * @return input tensors, to be closed once the session has been run
+     */
+    TensorList feed(@NonNull Session.Runner runner, @NonNull List<E> batch);
+
+}
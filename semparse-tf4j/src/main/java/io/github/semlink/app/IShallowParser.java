@@ -17,6 +17,7 @@
 package io.github.semlink.app;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import lombok.NonNull;
 
@@ -43,4 +44,14 @@ public interface IShallowParser<T, S extends List<T>> extends AutoCloseable {
      */
     List<Chunking<String>> shallowParseBatch(@NonNull List<S> sequence);
 
+    /**
+     * Asynchronously produce a list of phrases from a given batch of sequences of tokens.
+     *
+     * @param sequence token sequences
+     * @return future of batched lists of phrases
+     */
+    default CompletableFuture<List<Chunking<String>>> shallowParseBatchAsync(@NonNull List<S> sequence) {
+        return CompletableFuture.supplyAsync(() -> shallowParseBatch(sequence));
+    }
+
 }
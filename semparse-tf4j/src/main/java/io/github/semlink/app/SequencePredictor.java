@@ -17,6 +17,7 @@
 package io.github.semlink.app;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import lombok.NonNull;
 
@@ -25,7 +26,7 @@ import lombok.NonNull;
  *
  * @author jgung
  */
-public interface SequencePredictor<T> {
+public interface SequencePredictor<T> extends AutoCloseable {
 
     /**
      * Predict labels for a given input sequence.
@@ -43,4 +44,32 @@ public interface SequencePredictor<T> {
      */
     List<List<String>> predictBatch(@NonNull List<T> inputs);
 
+    /**
+     * Asynchronously predict labels for a given batch of input sequences. By default, prediction runs on the common fork-join
+     * pool. Implementations that block in native code should override this to use a dedicated inference executor.
+     *
+     * @param inputs input sequence batch
+     * @return future of batched sequence labels
+     */
+    default CompletableFuture<List<List<String>>> predictBatchAsync(@NonNull List<T> inputs) {
+        return CompletableFuture.supplyAsync(() -> predictBatch(inputs));
+    }
+
+    /**
+     * Run a batch of inputs through this predictor, discarding the results, to trigger any lazy initialization and allocation
+     * ahead of serving predictions.
+     *
+     * @param inputs synthetic or representative input batch
+     */
+    default void warmUp(@NonNull List<T> inputs) {
+        predictBatch(inputs);
+    }
+
+    /**
+     * Release any resources held by this predictor.
+     */
+    @Override
+    default void close() {
+    }
+
 }
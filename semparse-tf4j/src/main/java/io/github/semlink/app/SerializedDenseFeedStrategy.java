@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import org.tensorflow.Session;
+import org.tensorflow.Tensor;
+
+import java.util.Collections;
+import java.util.List;
+
+import io.github.semlink.extractor.DenseSequenceExtractor;
+import io.github.semlink.tensor.DenseExample;
+import io.github.semlink.tensor.TensorList;
+import io.github.semlink.type.HasFields;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+
+/**
+ * {@link FeedStrategy} that feeds serialized sequence examples to a single string input like {@link ExampleFeedStrategy}, but
+ * writes {@link DenseExample DenseExamples} directly to the wire format instead of building
+ * {@link org.tensorflow.example.SequenceExample} protos.
+ *
+ * @author jgung
+ */
+@AllArgsConstructor
+public class SerializedDenseFeedStrategy implements FeedStrategy<DenseExample> {
+
+    private DenseSequenceExtractor featureExtractor;
+    private String inputName;
+
+    @Override
+    public DenseExample extract(@NonNull HasFields input) {
+        return featureExtractor.extractDense(input);
+    }
+
+    @Override
+    public List<DenseExample> extract(@NonNull List<HasFields> inputs) {
+        return featureExtractor.extractDense(inputs);
+    }
+
+    @Override
+    public int length(@NonNull DenseExample features) {
+        return features.length();
+    }
+
+    @Override
+    public TensorList feed(@NonNull Session.Runner runner, @NonNull List<DenseExample> batch) {
+        byte[][] examples = new byte[batch.size()][];
+        for (int i = 0; i < examples.length; ++i) {
+            examples[i] = batch.get(i).toByteArray();
+        }
+        Tensor<?> inputTensor = Tensor.create(examples, String.class);
+        runner.feed(inputName, inputTensor);
+        return TensorList.of(Collections.singletonList(inputTensor));
+    }
+
+}
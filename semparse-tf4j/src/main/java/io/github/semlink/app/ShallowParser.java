@@ -19,30 +19,53 @@ package io.github.semlink.app;
 import com.google.common.base.Preconditions;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import io.github.semlink.app.ShallowParserUtils.Tag;
 import io.github.semlink.type.HasFields;
 import io.github.semlink.type.IToken;
 import io.github.semlink.type.ITokenSequence;
-import lombok.AllArgsConstructor;
 import lombok.NonNull;
 
 import static io.github.semlink.app.ShallowParserUtils.tags2Spans;
 
 /**
- * Default {@link IShallowParser} implementation.
+ * Default {@link IShallowParser} implementation. Given a {@link WindowingStrategy}, long inputs are split into windows, and each
+ * token's label is taken from the window in which it is most central, i.e. furthest from either window edge.
  *
  * @author jgung
  */
-@AllArgsConstructor
 public class ShallowParser implements IShallowParser<IToken, ITokenSequence> {
 
-    private TensorflowModel predictor;
+    private SequencePredictor<HasFields> predictor;
     private Function<ITokenSequence, HasFields> featureExtractor;
+    private WindowingStrategy windowing;
+
+    public ShallowParser(@NonNull SequencePredictor<HasFields> predictor,
+                         @NonNull Function<ITokenSequence, HasFields> featureExtractor) {
+        this(predictor, featureExtractor, null);
+    }
+
+    /**
+     * Initialize a shallow parser that splits long inputs into windows using a given strategy.
+     *
+     * @param predictor        sequence predictor
+     * @param featureExtractor feature function applied to each input sequence
+     * @param windowing        windowing strategy, or null to pass each input to the predictor as is
+     */
+    public ShallowParser(@NonNull SequencePredictor<HasFields> predictor,
+                         @NonNull Function<ITokenSequence, HasFields> featureExtractor,
+                         WindowingStrategy windowing) {
+        this.predictor = predictor;
+        this.featureExtractor = featureExtractor;
+        this.windowing = windowing;
+    }
 
     @Override
     public Chunking<String> shallowParse(@NonNull ITokenSequence sequence) {
@@ -51,18 +74,67 @@ public class ShallowParser implements IShallowParser<IToken, ITokenSequence> {
 
     @Override
     public List<Chunking<String>> shallowParseBatch(@NonNull List<ITokenSequence> sequence) {
+        List<List<HasFields>> windows = windows(sequence);
+
+        return toChunkings(sequence, windows, predictor.predictBatch(flatten(windows)));
+    }
+
+    /**
+     * Asynchronously produce a list of phrases from a given batch of sequences of tokens. Features are extracted on the calling
+     * thread, while prediction is performed by the underlying predictor's inference executor.
+     *
+     * @param sequence token sequences
+     * @return future of batched lists of phrases
+     */
+    @Override
+    public CompletableFuture<List<Chunking<String>>> shallowParseBatchAsync(@NonNull List<ITokenSequence> sequence) {
+        List<List<HasFields>> windows = windows(sequence);
+
+        return predictor.predictBatchAsync(flatten(windows))
+                .thenApply(labels -> toChunkings(sequence, windows, labels));
+    }
+
+    private List<List<HasFields>> windows(List<ITokenSequence> sequence) {
         List<HasFields> features = sequence.stream()
                 .map(featureExtractor)
                 .collect(Collectors.toList());
+        if (null == windowing) {
+            return features.stream()
+                    .map(Collections::singletonList)
+                    .collect(Collectors.toList());
+        }
+        List<List<HasFields>> windows = windowing.windows(features);
+        Preconditions.checkState(windows.size() == features.size(),
+                "Windowing produced an unexpected number of inputs: %s vs. %s", windows.size(), features.size());
+        return windows;
+    }
 
-        List<List<String>> labels = predictor.predictBatch(features);
-        Preconditions.checkState(labels.size() == sequence.size(),
-                "Predictor produced an unexpected number of batches: %s vs. %s", labels.size(), sequence.size());
+    private static List<HasFields> flatten(List<List<HasFields>> windows) {
+        return windows.stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Chunking<String>> toChunkings(List<ITokenSequence> sequence, List<List<HasFields>> windows,
+                                                      List<List<String>> labels) {
+        int inputs = windows.stream().mapToInt(List::size).sum();
+        Preconditions.checkState(labels.size() == inputs,
+                "Predictor produced an unexpected number of batches: %s vs. %s", labels.size(), inputs);
 
-        Iterator<ITokenSequence> iterator = sequence.iterator();
+        Iterator<List<String>> iterator = labels.iterator();
         List<Chunking<String>> phrases = new ArrayList<>();
-        for (List<String> labeling : labels) {
-            int tokens = iterator.next().size();
+        for (int i = 0; i < sequence.size(); ++i) {
+            int tokens = sequence.get(i).size();
+            List<HasFields> inputWindows = windows.get(i);
+            List<String> labeling = iterator.next();
+            if (inputWindows.size() > 1 || inputWindows.get(0).hasFields(WindowingStrategy.WINDOW_START_KEY)) {
+                List<List<String>> windowLabels = new ArrayList<>(inputWindows.size());
+                windowLabels.add(labeling);
+                for (int j = 1; j < inputWindows.size(); ++j) {
+                    windowLabels.add(iterator.next());
+                }
+                labeling = stitch(inputWindows, windowLabels, tokens);
+            }
             Preconditions.checkState(labeling.size() == tokens,
                     "Predictor produced an unexpected number of labels: %s vs. %s", tokens, labeling.size());
             phrases.add(new DefaultChunking<>(tags2Spans(labeling)));
@@ -71,6 +143,83 @@ public class ShallowParser implements IShallowParser<IToken, ITokenSequence> {
         return phrases;
     }
 
+    /**
+     * Combine labels predicted for windows, taking each token's label from the window in which it is most central. Windows that
+     * do not contain their {@link WindowingStrategy#WINDOW_FOCUS_KEY focus token} are ignored, as their labels are not predicted
+     * for it. Ties are resolved in favor of windows containing a focus token, then of earlier windows. Tokens outside of every
+     * window are labeled {@code O}, and an {@code I-X} label at a seam between windows that does not continue an {@code X} span
+     * is replaced by {@code B-X}.
+     */
+    static List<String> stitch(List<HasFields> windows, List<List<String>> labels, int tokens) {
+        String[] result = new String[tokens];
+        Arrays.fill(result, Tag.OUT.prefix());
+        int[] source = new int[tokens];
+        Arrays.fill(source, -1);
+        int[] centrality = new int[tokens];
+        Arrays.fill(centrality, -1);
+        boolean[] focused = new boolean[tokens];
+        for (int i = 0; i < windows.size(); ++i) {
+            HasFields window = windows.get(i);
+            int start = window.field(WindowingStrategy.WINDOW_START_KEY);
+            int end = window.field(WindowingStrategy.WINDOW_END_KEY);
+            List<String> windowLabels = labels.get(i);
+            Preconditions.checkState(windowLabels.size() == end - start,
+                    "Predictor produced an unexpected number of labels: %s vs. %s", end - start, windowLabels.size());
+            boolean focus = window.hasFields(WindowingStrategy.WINDOW_FOCUS_KEY);
+            if (focus) {
+                int focusIndex = window.field(WindowingStrategy.WINDOW_FOCUS_KEY);
+                if (focusIndex < start || focusIndex >= end) {
+                    continue;
+                }
+            }
+            for (int j = 0; j < windowLabels.size(); ++j) {
+                int distance = Math.min(j, windowLabels.size() - 1 - j);
+                int index = start + j;
+                if (distance > centrality[index] || (distance == centrality[index] && focus && !focused[index])) {
+                    centrality[index] = distance;
+                    focused[index] = focus;
+                    source[index] = i;
+                    result[index] = windowLabels.get(j);
+                }
+            }
+        }
+        for (int i = 1; i < tokens; ++i) {
+            if (source[i] != source[i - 1]) {
+                result[i] = repairSeam(result[i - 1], result[i]);
+            }
+        }
+        return Arrays.asList(result);
+    }
+
+    private static String repairSeam(String previous, String label) {
+        String inside = Tag.IN.prefix() + "-";
+        if (!label.startsWith(inside)) {
+            return label;
+        }
+        String type = label.substring(inside.length());
+        if (previous.equals(Tag.BEGIN.prefix() + "-" + type) || previous.equals(label)) {
+            return label;
+        }
+        return Tag.BEGIN.prefix() + "-" + type;
+    }
+
+    /**
+     * Run synthetic batches through the underlying predictor for each given input sequence and batch size, so that lazy
+     * allocation and tuning happen before serving predictions. Sequences should cover the range of lengths expected at runtime.
+     *
+     * @param sequences  representative input sequences, e.g. one per expected length bucket
+     * @param batchSizes batch sizes to run for each input sequence
+     */
+    public void warmUp(@NonNull List<ITokenSequence> sequences, @NonNull int... batchSizes) {
+        for (ITokenSequence sequence : sequences) {
+            for (HasFields features : windows(Collections.singletonList(sequence)).get(0)) {
+                for (int batchSize : batchSizes) {
+                    predictor.warmUp(Collections.nCopies(batchSize, features));
+                }
+            }
+        }
+    }
+
     @Override
     public void close() {
         predictor.close();
@@ -1,5 +1,7 @@
 package io.github.semlink.app;
 
+import com.google.common.base.Preconditions;
+
 import java.util.List;
 
 import lombok.NonNull;
@@ -21,4 +23,25 @@ public interface SubwordTokenizer {
      */
     List<String> tokenize(@NonNull String text);
 
+    /**
+     * Convert a list of string tokens to a primitive array of IDs, failing on tokens missing from the vocabulary.
+     */
+    default int[] convertTokensToIdArray(@NonNull List<String> tokens) {
+        List<Integer> ids = convertTokensToIds(tokens);
+        int[] result = new int[ids.size()];
+        for (int i = 0; i < result.length; ++i) {
+            Integer id = ids.get(i);
+            Preconditions.checkArgument(null != id, "Token not in vocabulary: %s", tokens.get(i));
+            result[i] = id;
+        }
+        return result;
+    }
+
+    /**
+     * Tokenize a string, returning vocabulary IDs of the resulting subword tokens.
+     */
+    default int[] tokenizeToIds(@NonNull String text) {
+        return convertTokensToIdArray(tokenize(text));
+    }
+
 }
@@ -16,27 +16,39 @@
 
 package io.github.semlink.app;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import org.tensorflow.SavedModelBundle;
 import org.tensorflow.Session;
-import org.tensorflow.Tensor;
-import org.tensorflow.example.SequenceExample;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.stream.Collectors;
 
+import io.github.semlink.extractor.DenseSequenceExtractor;
 import io.github.semlink.extractor.SequenceExampleExtractor;
 import io.github.semlink.extractor.config.ConfigSpec;
 import io.github.semlink.extractor.config.Extractors;
+import io.github.semlink.extractor.config.FeedSpec;
 import io.github.semlink.tensor.TensorList;
 import io.github.semlink.type.HasFields;
-import lombok.AllArgsConstructor;
 import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
 
-import static io.github.semlink.tensor.Tensors.batchExamples;
+import static io.github.semlink.tensor.Tensors.bucketByLength;
 import static io.github.semlink.tensor.Tensors.toStringLists;
 
 /**
@@ -44,19 +56,58 @@ import static io.github.semlink.tensor.Tensors.toStringLists;
  *
  * @author jgung
  */
-@AllArgsConstructor
+@Accessors(fluent = true)
 public class TensorflowModel implements AutoCloseable, SequencePredictor<HasFields> {
 
     private static final String OP_NAME = "input_example_tensor";
     private static final String FETCH_NAME = "gold/labels";
     private static final String IGNORE_LABEL = "X";
+    private static final String CONFIG_FILE = "config.json";
+    private static final int[] BUCKET_BOUNDARIES = {16, 32, 64, 128};
 
-    private SequenceExampleExtractor featureExtractor;
-    private SavedModelBundle model;
+    private FeedStrategy<?> feedStrategy;
+    private List<SavedModelBundle> models;
+    private BlockingQueue<SavedModelBundle> idleModels;
 
-    private String inputName;
     private String fetchName;
 
+    private volatile ExecutorService inferenceExecutor;
+
+    /**
+     * Sequence length boundaries used to split batches into separately-run buckets, to avoid padding short sequences to the
+     * length of the longest sequence in a batch.
+     */
+    @Setter
+    private int[] bucketBoundaries = BUCKET_BOUNDARIES;
+
+    /**
+     * Initialize a model served by one or more loaded copies of the same saved model. A single session is shared by all
+     * callers. With multiple sessions, each batch takes exclusive use of an idle session, so that concurrent batches run on
+     * separate sessions with their own thread budgets.
+     *
+     * @param feedStrategy feature extraction and input feeding strategy
+     * @param models       loaded copies of a saved model
+     * @param fetchName    name of predicted labels op
+     */
+    public TensorflowModel(@NonNull FeedStrategy<?> feedStrategy, @NonNull List<SavedModelBundle> models,
+                           @NonNull String fetchName) {
+        Preconditions.checkArgument(!models.isEmpty(), "At least one saved model is required");
+        this.feedStrategy = feedStrategy;
+        this.models = ImmutableList.copyOf(models);
+        this.idleModels = new LinkedBlockingQueue<>(models);
+        this.fetchName = fetchName;
+    }
+
+    public TensorflowModel(@NonNull FeedStrategy<?> feedStrategy, @NonNull SavedModelBundle model,
+                           @NonNull String fetchName) {
+        this(feedStrategy, Collections.singletonList(model), fetchName);
+    }
+
+    public TensorflowModel(@NonNull SequenceExampleExtractor featureExtractor, @NonNull SavedModelBundle model,
+                           @NonNull String inputName, @NonNull String fetchName) {
+        this(new ExampleFeedStrategy(featureExtractor, inputName), model, fetchName);
+    }
+
     public TensorflowModel(@NonNull SequenceExampleExtractor featureExtractor, @NonNull SavedModelBundle model) {
         this(featureExtractor, model, OP_NAME, FETCH_NAME);
     }
@@ -68,43 +119,200 @@ public class TensorflowModel implements AutoCloseable, SequencePredictor<HasFiel
 
     @Override
     public List<List<String>> predictBatch(@NonNull List<HasFields> inputs) {
+        return predictBatch(feedStrategy, inputs);
+    }
+
+    private <E> List<List<String>> predictBatch(FeedStrategy<E> strategy, List<HasFields> inputs) {
+        List<E> features = strategy.extract(inputs);
+
+        List<List<Integer>> buckets = bucketByLength(features.stream()
+                .mapToInt(strategy::length)
+                .toArray(), bucketBoundaries);
+        if (buckets.size() <= 1) {
+            return run(strategy, features);
+        }
+
+        List<List<String>> result = new ArrayList<>(Collections.nCopies(features.size(), null));
+        for (List<Integer> bucket : buckets) {
+            List<List<String>> labels = run(strategy, bucket.stream()
+                    .map(features::get)
+                    .collect(Collectors.toList()));
+            for (int i = 0; i < bucket.size(); ++i) {
+                result.set(bucket.get(i), labels.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Asynchronously predict labels for a given batch of inputs on a dedicated inference executor, with one thread per loaded
+     * session.
+     */
+    @Override
+    public CompletableFuture<List<List<String>>> predictBatchAsync(@NonNull List<HasFields> inputs) {
+        return CompletableFuture.supplyAsync(() -> predictBatch(inputs), inferenceExecutor());
+    }
+
+    private ExecutorService inferenceExecutor() {
+        ExecutorService executor = inferenceExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = inferenceExecutor;
+                if (executor == null) {
+                    executor = Executors.newFixedThreadPool(models.size(), new ThreadFactoryBuilder()
+                            .setNameFormat("tensorflow-inference-%d")
+                            .setDaemon(true)
+                            .build());
+                    inferenceExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Run a batch of inputs through every loaded session, so that each session performs its lazy allocation and tuning for
+     * this batch shape before serving predictions. The batch is run as is, without splitting it into length buckets.
+     */
+    @Override
+    public void warmUp(@NonNull List<HasFields> inputs) {
+        warmUp(feedStrategy, inputs);
+    }
 
-        List<SequenceExample> sequenceExamples = inputs.stream()
-                .map(featureExtractor::extractSequence)
-                .collect(Collectors.toList());
+    private <E> void warmUp(FeedStrategy<E> strategy, List<HasFields> inputs) {
+        List<E> features = strategy.extract(inputs);
+        for (SavedModelBundle model : models) {
+            run(model, strategy, features);
+        }
+    }
 
-        try (Tensor<?> inputTensor = Tensor.create(batchExamples(sequenceExamples), String.class)) {
-            Session.Runner runner = model.session().runner()
-                    .feed(inputName, inputTensor)
-                    .fetch(fetchName);
-            TensorList results = TensorList.of(runner.run());
+    private <E> List<List<String>> run(FeedStrategy<E> strategy, List<E> batch) {
+        if (models.size() == 1) {
+            return run(models.get(0), strategy, batch);
+        }
+        SavedModelBundle model;
+        try {
+            model = idleModels.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an idle session", e);
+        }
+        try {
+            return run(model, strategy, batch);
+        } finally {
+            idleModels.add(model);
+        }
+    }
 
-            List<List<String>> result = toStringLists(results.get(0)).stream()
+    private <E> List<List<String>> run(SavedModelBundle model, FeedStrategy<E> strategy, List<E> batch) {
+        Session.Runner runner = model.session().runner()
+                .fetch(fetchName);
+        try (TensorList inputs = strategy.feed(runner, batch);
+             TensorList results = TensorList.of(runner.run())) {
+            return toStringLists(results.get(0)).stream()
                     .map(labels -> labels.stream().filter(l -> !l.equals(IGNORE_LABEL)).collect(Collectors.toList()))
                     .collect(Collectors.toList());
-
-            results.close();
-            return result;
         }
     }
 
+    /**
+     * Returns the number of sessions serving predictions for this model.
+     */
+    public int sessions() {
+        return models.size();
+    }
+
     @Override
     public void close() {
-        model.close();
+        synchronized (this) {
+            if (inferenceExecutor != null) {
+                inferenceExecutor.shutdownNow();
+            }
+        }
+        models.forEach(SavedModelBundle::close);
     }
 
+    /**
+     * Load a saved model from a given directory using a given feature extractor. If the directory contains a configuration file
+     * with a {@link FeedSpec feed configuration}, it is used to select how inputs are fed to the model. Otherwise, serialized sequence examples are
+     * fed to the default input op.
+     *
+     * @param modelDir         model directory, containing the saved model under "model"
+     * @param featureExtractor feature extractor, which must also implement {@link DenseSequenceExtractor} for dense feeding
+     * @return Tensorflow model
+     */
     public static TensorflowModel fromDirectory(@NonNull String modelDir, @NonNull SequenceExampleExtractor featureExtractor) {
-        SavedModelBundle model = SavedModelBundle.load(Paths.get(modelDir, "model").toString(), "serve");
-        return new TensorflowModel(featureExtractor, model);
+        return fromDirectory(modelDir, featureExtractor, new TensorflowModelOptions());
+    }
+
+    /**
+     * Load a saved model from a given directory using a given feature extractor and loading options, as in
+     * {@link #fromDirectory(String, SequenceExampleExtractor)}.
+     *
+     * @param modelDir         model directory, containing the saved model under "model"
+     * @param featureExtractor feature extractor
+     * @param options          session configuration and number of sessions to load
+     * @return Tensorflow model
+     */
+    public static TensorflowModel fromDirectory(@NonNull String modelDir, @NonNull SequenceExampleExtractor featureExtractor,
+                                                @NonNull TensorflowModelOptions options) {
+        return fromDirectory(modelDir, featureExtractor, readFeed(modelDir), options);
     }
 
     public static TensorflowModel fromDirectory(@NonNull String modelDir) {
-        try (FileInputStream in = new FileInputStream(Paths.get(modelDir, "config.json").toString())) {
+        try (FileInputStream in = new FileInputStream(Paths.get(modelDir, CONFIG_FILE).toString())) {
             ConfigSpec spec = ConfigSpec.fromInputStream(in);
             SequenceExampleExtractor extractor = Extractors.createExtractor(spec.features(),
                     Paths.get(modelDir, "vocab").toString(), false);
 
-            return fromDirectory(modelDir, extractor);
+            return fromDirectory(modelDir, extractor, spec.feed() == null ? new FeedSpec() : spec.feed(),
+                    new TensorflowModelOptions());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static TensorflowModel fromDirectory(String modelDir, SequenceExampleExtractor featureExtractor, FeedSpec feed,
+                                                 TensorflowModelOptions options) {
+        FeedStrategy<?> strategy = feedStrategy(featureExtractor, feed);
+        byte[] configProto = options.configProto();
+        List<SavedModelBundle> models = new ArrayList<>();
+        try {
+            for (int i = 0; i < options.sessions(); ++i) {
+                models.add(SavedModelBundle.loader(Paths.get(modelDir, "model").toString())
+                        .withTags(options.tags())
+                        .withConfigProto(configProto)
+                        .load());
+            }
+        } catch (RuntimeException e) {
+            models.forEach(SavedModelBundle::close);
+            throw e;
+        }
+        return new TensorflowModel(strategy, models, feed.fetch());
+    }
+
+    private static FeedStrategy<?> feedStrategy(SequenceExampleExtractor featureExtractor, FeedSpec feed) {
+        if (feed.mode() == FeedSpec.FeedMode.DENSE) {
+            if (!(featureExtractor instanceof DenseSequenceExtractor)) {
+                throw new IllegalArgumentException("Dense feeding requested, but feature extractor does not support it: "
+                        + featureExtractor.getClass().getName());
+            }
+            return new DenseFeedStrategy((DenseSequenceExtractor) featureExtractor, feed.placeholders());
+        }
+        if (featureExtractor instanceof DenseSequenceExtractor) {
+            // same serialized input, but written directly from primitive features
+            return new SerializedDenseFeedStrategy((DenseSequenceExtractor) featureExtractor, feed.input());
+        }
+        return new ExampleFeedStrategy(featureExtractor, feed.input());
+    }
+
+    private static FeedSpec readFeed(String modelDir) {
+        File configFile = Paths.get(modelDir, CONFIG_FILE).toFile();
+        if (!configFile.exists()) {
+            return new FeedSpec();
+        }
+        try (FileInputStream in = new FileInputStream(configFile)) {
+            return FeedSpec.fromConfigInputStream(in);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
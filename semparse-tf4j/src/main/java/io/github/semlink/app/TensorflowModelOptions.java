@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import com.google.common.base.Preconditions;
+
+import org.tensorflow.framework.ConfigProto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * Options used when loading a {@link TensorflowModel}, such as session thread pool sizes and the number of sessions used to
+ * serve predictions.
+ *
+ * @author jgung
+ */
+@Getter
+@Setter
+@Accessors(fluent = true)
+public class TensorflowModelOptions {
+
+    /**
+     * Saved model tags to load.
+     */
+    private String[] tags = {"serve"};
+    /**
+     * Number of threads used within individual ops of each session, or 0 to let Tensorflow choose.
+     */
+    private int intraOpThreads = 0;
+    /**
+     * Number of threads used to run independent ops of each session in parallel, or 0 to let Tensorflow choose.
+     */
+    private int interOpThreads = 0;
+    /**
+     * Number of independently loaded sessions used to serve predictions in parallel.
+     */
+    private int sessions = 1;
+
+    /**
+     * Returns the serialized {@link ConfigProto} for each session. When serving from more than one session, each session gets
+     * its own inter-op thread pool instead of sharing the process-wide pool.
+     */
+    public byte[] configProto() {
+        Preconditions.checkState(sessions > 0, "Number of sessions must be positive: %s", sessions);
+        Preconditions.checkState(intraOpThreads >= 0 && interOpThreads >= 0,
+                "Thread counts must be non-negative: %s, %s", intraOpThreads, interOpThreads);
+        return ConfigProto.newBuilder()
+                .setIntraOpParallelismThreads(intraOpThreads)
+                .setInterOpParallelismThreads(interOpThreads)
+                .setUsePerSessionThreads(sessions > 1)
+                .build()
+                .toByteArray();
+    }
+
+}
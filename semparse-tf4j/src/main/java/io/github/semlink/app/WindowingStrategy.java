@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import java.util.List;
+
+import io.github.semlink.type.HasFields;
+import lombok.NonNull;
+
+/**
+ * Strategy for splitting inputs that are too long for a model into windows. Each window covers a contiguous range of the input
+ * sequence, given by {@link #WINDOW_START_KEY} and {@link #WINDOW_END_KEY}, and may name the token that labels are predicted
+ * for, such as a predicate, with {@link #WINDOW_FOCUS_KEY}. Labels predicted for each window are stitched back together by
+ * {@link ShallowParser}, and tokens outside of every window are left unlabeled.
+ *
+ * @author jgung
+ */
+public interface WindowingStrategy {
+
+    /**
+     * Start (inclusive) index of a window within the full input sequence.
+     */
+    String WINDOW_START_KEY = "window_start";
+    /**
+     * End (exclusive) index of a window within the full input sequence.
+     */
+    String WINDOW_END_KEY = "window_end";
+    /**
+     * Optional index of the focus token of a window within the full input sequence. Labels are only taken from windows that
+     * contain their focus token.
+     */
+    String WINDOW_FOCUS_KEY = "window_focus";
+
+    /**
+     * Split a batch of inputs into windows.
+     *
+     * @param inputs input fields
+     * @return windows for each input, in input order, or a singleton list containing the input itself if it need not be split
+     */
+    List<List<HasFields>> windows(@NonNull List<HasFields> inputs);
+
+}
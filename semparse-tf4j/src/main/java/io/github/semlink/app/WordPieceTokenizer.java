@@ -16,6 +16,8 @@
 
 package io.github.semlink.app;
 
+import com.google.common.base.Preconditions;
+
 import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -30,7 +32,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
@@ -42,7 +43,6 @@ import lombok.extern.slf4j.Slf4j;
  * @see <a href="https://arxiv.org/abs/1609.08144">https://arxiv.org/abs/1609.08144</a>
  */
 @Slf4j
-@AllArgsConstructor
 public class WordPieceTokenizer implements SubwordTokenizer {
 
     public static List<String> whitespaceTokenize(@NonNull String text) {
@@ -75,9 +75,19 @@ public class WordPieceTokenizer implements SubwordTokenizer {
         }
     }
 
-    private Map<String, Integer> vocabulary;
+    private WordPieceVocabulary vocabulary;
     private String unkToken;
+    private int unkId;
     private int maxInputCharsPerWord;
+    private WordPieceTrie trie;
+
+    public WordPieceTokenizer(@NonNull Map<String, Integer> vocabulary, @NonNull String unkToken, int maxInputCharsPerWord) {
+        this.vocabulary = WordPieceVocabulary.of(vocabulary);
+        this.unkToken = unkToken;
+        this.unkId = this.vocabulary.get(unkToken);
+        this.maxInputCharsPerWord = maxInputCharsPerWord;
+        this.trie = WordPieceTrie.of(vocabulary);
+    }
 
     public WordPieceTokenizer(Map<String, Integer> vocabulary) {
         this(vocabulary, "[UNK]", 200);
@@ -91,15 +101,26 @@ public class WordPieceTokenizer implements SubwordTokenizer {
      * Convert a list of word piece tokens to corresponding vocabulary IDs.
      *
      * @param tokens word piece tokens
-     * @return vocabulary indices
+     * @return vocabulary indices, {@code null} for tokens missing from the vocabulary
      */
     @Override
     public List<Integer> convertTokensToIds(@NonNull List<String> tokens) {
         return tokens.stream()
             .map(vocabulary::get)
+            .map(id -> id == WordPieceVocabulary.MISSING ? null : id)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public int[] convertTokensToIdArray(@NonNull List<String> tokens) {
+        int[] ids = new int[tokens.size()];
+        for (int i = 0; i < ids.length; ++i) {
+            ids[i] = vocabulary.get(tokens.get(i));
+            Preconditions.checkArgument(ids[i] != WordPieceVocabulary.MISSING, "Token not in vocabulary: %s", tokens.get(i));
+        }
+        return ids;
+    }
+
     /**
      * Tokenize input text into a list of word pieces based on the vocabulary.
      *
@@ -109,48 +130,80 @@ public class WordPieceTokenizer implements SubwordTokenizer {
     @Override
     public List<String> tokenize(@NonNull String text) {
         List<String> outputTokens = new ArrayList<>();
-
         for (String token : whitespaceTokenize(text)) {
-
-            if (token.length() > maxInputCharsPerWord) {
+            int[] nodes = new int[token.length()];
+            int count = wordPieces(token, nodes);
+            if (count < 0) {
                 outputTokens.add(unkToken);
                 continue;
             }
+            for (int i = 0; i < count; ++i) {
+                outputTokens.add(trie.token(nodes[i]));
+            }
+        }
+        return outputTokens;
+    }
 
-            boolean isBad = false;
-            int start = 0;
-            List<String> subTokens = new ArrayList<>();
-            while (start < token.length()) {
-                int end = token.length();
-                String curSubstr = null;
-
-                while (start < end) {
-                    String substr = token.substring(start, end);
-                    if (start > 0) {
-                        substr = "##" + substr;
-                    }
-                    if (vocabulary.containsKey(substr)) {
-                        curSubstr = substr;
-                        break;
-                    }
-                    end -= 1;
-                }
-                if (null == curSubstr) {
-                    isBad = true;
+    /**
+     * Tokenize input text directly to vocabulary IDs, reading IDs from the vocabulary trie without intermediate strings.
+     *
+     * @param text input text, a single token or whitespace separated sentence
+     * @return word piece vocabulary IDs
+     */
+    @Override
+    public int[] tokenizeToIds(@NonNull String text) {
+        int[] ids = new int[text.length()];
+        int size = 0;
+        for (String token : whitespaceTokenize(text)) {
+            int[] nodes = new int[token.length()];
+            int count = wordPieces(token, nodes);
+            if (count < 0) {
+                Preconditions.checkState(unkId != WordPieceVocabulary.MISSING, "Token not in vocabulary: %s", unkToken);
+                ids[size++] = unkId;
+                continue;
+            }
+            for (int i = 0; i < count; ++i) {
+                ids[size++] = trie.id(nodes[i]);
+            }
+        }
+        return size == ids.length ? ids : Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Split a single token into word pieces, storing the trie node of each word piece.
+     *
+     * @param token single whitespace-free token
+     * @param nodes output trie nodes, with room for at least one node per character
+     * @return number of word pieces, or -1 if the token should be replaced by the unknown token
+     */
+    private int wordPieces(String token, int[] nodes) {
+        if (token.length() > maxInputCharsPerWord) {
+            return -1;
+        }
+        int count = 0;
+        int start = 0;
+        while (start < token.length()) {
+            // scan forward from start, keeping the longest vocabulary entry seen so far
+            int node = trie.root(start > 0);
+            int end = start;
+            int match = -1;
+            for (int index = start; index < token.length(); ++index) {
+                node = trie.child(node, token.charAt(index));
+                if (node < 0) {
                     break;
                 }
-                subTokens.add(curSubstr);
-                start = end;
+                if (null != trie.token(node)) {
+                    match = node;
+                    end = index + 1;
+                }
             }
-
-            if (isBad) {
-                outputTokens.add(unkToken);
-            } else {
-                outputTokens.addAll(subTokens);
+            if (match < 0) {
+                return -1;
             }
-
+            nodes[count++] = match;
+            start = end;
         }
-        return outputTokens;
+        return count;
     }
 
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import lombok.NonNull;
+
+/**
+ * Character trie over a WordPiece vocabulary, used to find the longest vocabulary entry matching at a given position in a word
+ * with a single left-to-right scan. Word-initial matches are found from the word root, which contains every entry. Matches
+ * after the start of a word are found from the continuation root, which contains entries with a "##" prefix, without the
+ * prefix. Transitions are stored in a single open-addressing table keyed by parent node and character.
+ *
+ * @author jgung
+ */
+public final class WordPieceTrie {
+
+    static final String CONTINUATION_PREFIX = "##";
+
+    private static final int NONE = -1;
+    private static final long EMPTY = -1L;
+
+    private final int wordRoot;
+    private final int continuationRoot;
+
+    private String[] tokens;
+    private int[] ids;
+    private int nodeCount;
+
+    private final long[] keys;
+    private final int[] children;
+    private final int mask;
+
+    private WordPieceTrie(int maxNodes) {
+        tokens = new String[maxNodes];
+        ids = new int[maxNodes];
+        Arrays.fill(ids, NONE);
+        // keep the transition table at most half full
+        int capacity = Integer.highestOneBit(Math.max(8, maxNodes - 1)) << 2;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        children = new int[capacity];
+        mask = capacity - 1;
+        wordRoot = nodeCount++;
+        continuationRoot = nodeCount++;
+    }
+
+    /**
+     * Build a trie from a given vocabulary.
+     *
+     * @param vocabulary mapping from WordPiece tokens to vocabulary IDs
+     * @return vocabulary trie
+     */
+    public static WordPieceTrie of(@NonNull Map<String, Integer> vocabulary) {
+        int maxNodes = 2;
+        for (String token : vocabulary.keySet()) {
+            maxNodes += token.length();
+            if (token.startsWith(CONTINUATION_PREFIX)) {
+                maxNodes += token.length() - CONTINUATION_PREFIX.length();
+            }
+        }
+        WordPieceTrie trie = new WordPieceTrie(maxNodes);
+        for (Map.Entry<String, Integer> entry : vocabulary.entrySet()) {
+            String token = entry.getKey();
+            trie.insert(trie.wordRoot, token, 0, token, entry.getValue());
+            if (token.startsWith(CONTINUATION_PREFIX)) {
+                trie.insert(trie.continuationRoot, token, CONTINUATION_PREFIX.length(), token, entry.getValue());
+            }
+        }
+        trie.tokens = Arrays.copyOf(trie.tokens, trie.nodeCount);
+        trie.ids = Arrays.copyOf(trie.ids, trie.nodeCount);
+        return trie;
+    }
+
+    private void insert(int root, String chars, int offset, String token, int id) {
+        if (offset == chars.length()) {
+            // empty matches are never used, as each subtoken must cover at least one character
+            return;
+        }
+        int node = root;
+        for (int i = offset; i < chars.length(); ++i) {
+            char c = chars.charAt(i);
+            int next = child(node, c);
+            if (next == NONE) {
+                next = nodeCount++;
+                put(node, c, next);
+            }
+            node = next;
+        }
+        tokens[node] = token;
+        ids[node] = id;
+    }
+
+    /**
+     * Returns the root used to match a subtoken at the start of a word, or after the start of a word.
+     *
+     * @param continuation {@code true} if matching after the start of a word
+     * @return root node
+     */
+    public int root(boolean continuation) {
+        return continuation ? continuationRoot : wordRoot;
+    }
+
+    /**
+     * Returns the child of a node for a given character, or -1 if there is none.
+     */
+    public int child(int node, char c) {
+        long key = key(node, c);
+        int index = index(key);
+        while (true) {
+            long current = keys[index];
+            if (current == key) {
+                return children[index];
+            }
+            if (current == EMPTY) {
+                return NONE;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the full vocabulary entry (including any "##" prefix) ending at a given node, or {@code null} if none.
+     */
+    public String token(int node) {
+        return tokens[node];
+    }
+
+    /**
+     * Returns the vocabulary ID of the entry ending at a given node, or -1 if none.
+     */
+    public int id(int node) {
+        return ids[node];
+    }
+
+    private void put(int node, char c, int child) {
+        long key = key(node, c);
+        int index = index(key);
+        while (keys[index] != EMPTY) {
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        children[index] = child;
+    }
+
+    private static long key(int node, char c) {
+        return ((long) node << 16) | c;
+    }
+
+    private int index(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+}
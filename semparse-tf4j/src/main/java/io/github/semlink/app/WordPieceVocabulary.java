@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import lombok.NonNull;
+
+/**
+ * Immutable open-addressing hash table from WordPiece tokens to primitive vocabulary IDs, avoiding boxed values and per-entry
+ * node objects.
+ *
+ * @author jgung
+ */
+public final class WordPieceVocabulary {
+
+    /**
+     * Value returned for tokens missing from the vocabulary.
+     */
+    public static final int MISSING = -1;
+
+    private final String[] keys;
+    private final int[] values;
+    private final int mask;
+    private final int size;
+
+    private WordPieceVocabulary(String[] keys, int[] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.mask = keys.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * Build a vocabulary from a given mapping of tokens to IDs.
+     *
+     * @param vocabulary mapping from WordPiece tokens to vocabulary IDs
+     * @return primitive vocabulary
+     */
+    public static WordPieceVocabulary of(@NonNull Map<String, Integer> vocabulary) {
+        // keep the table at most half full
+        int capacity = Integer.highestOneBit(Math.max(8, vocabulary.size() - 1)) << 2;
+        String[] keys = new String[capacity];
+        int[] values = new int[capacity];
+        int mask = capacity - 1;
+        for (Map.Entry<String, Integer> entry : vocabulary.entrySet()) {
+            int index = index(entry.getKey(), mask);
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = entry.getKey();
+            values[index] = entry.getValue();
+        }
+        return new WordPieceVocabulary(keys, values, vocabulary.size());
+    }
+
+    /**
+     * Returns the ID of a given token, or {@link #MISSING} if the token is not in the vocabulary.
+     */
+    public int get(@NonNull String token) {
+        int index = index(token, mask);
+        while (true) {
+            String key = keys[index];
+            if (key == null) {
+                return MISSING;
+            }
+            if (key.equals(token)) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the number of tokens in this vocabulary.
+     */
+    public int size() {
+        return size;
+    }
+
+    private static int index(String token, int mask) {
+        int hash = token.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+}
@@ -17,25 +17,22 @@
 package io.github.semlink.extractor;
 
 
+import com.google.common.base.Preconditions;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 
 import org.tensorflow.example.BytesList;
 import org.tensorflow.example.Feature;
 import org.tensorflow.example.FeatureList;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
-
 import io.github.semlink.extractor.config.FeatureSpec;
 import io.github.semlink.type.HasFields;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 
-import static java.util.Collections.nCopies;
-
 /**
- * Character feature extractor.
+ * Character feature extractor. Words are split into Unicode code points, so that characters outside the Basic Multilingual
+ * Plane are kept intact rather than split into surrogates, then padded and truncated to a fixed length.
  *
  * @author jgung
  */
@@ -43,6 +40,14 @@ import static java.util.Collections.nCopies;
 @Accessors(fluent = true)
 public class CharacterFeatureExtractor extends BaseFeatureExtractor<FeatureList> {
 
+    private static final ByteString[] ASCII = new ByteString[0x80];
+
+    static {
+        for (int c = 0; c < ASCII.length; ++c) {
+            ASCII[c] = ByteString.copyFrom(new byte[]{(byte) c});
+        }
+    }
+
     private String padWord;
     private String startWord;
     private String endWord;
@@ -50,56 +55,90 @@ public class CharacterFeatureExtractor extends BaseFeatureExtractor<FeatureList>
     private int leftPadding;
     private int rightPadding;
 
+    private final ByteString padBytes;
+    private final ByteString startBytes;
+    private final ByteString endBytes;
+
     public CharacterFeatureExtractor(FeatureSpec feature, Vocabulary vocabulary) {
         super(feature.name(), feature.key(), vocabulary);
+        Preconditions.checkArgument(feature.maxLen() >= 0, "Character feature %s requires a maximum length", feature.name());
         this.maxLength = feature.maxLen();
         this.leftPadding = feature.leftPadding();
         this.rightPadding = feature.rightPadding();
         this.padWord = feature.padWord();
         this.startWord = feature.leftPadWord();
         this.endWord = feature.rightPadWord();
+        this.padBytes = utf8(padWord);
+        this.startBytes = utf8(startWord);
+        this.endBytes = utf8(endWord);
     }
 
     @Override
     public FeatureList extract(HasFields seq) {
         FeatureList.Builder builder = FeatureList.newBuilder();
-        getValues(seq).stream()
-                .map(this::mapToChars)
-                .map(this::padAndTruncate)
-                .map(text -> Feature.newBuilder().setBytesList(
-                        BytesList.newBuilder().addAllValue(text.stream()
-                                .map(ByteString::copyFromUtf8)
-                                .collect(Collectors.toList()))))
-                .forEach(builder::addFeature);
+        // reused across words, as BytesList builders only keep references to the (immutable) values
+        ByteString[] buffer = new ByteString[maxLength];
+        for (String word : getValues(seq)) {
+            padAndTruncate(map(word), buffer);
+            BytesList.Builder bytes = BytesList.newBuilder();
+            for (ByteString value : buffer) {
+                bytes.addValue(value);
+            }
+            builder.addFeature(Feature.newBuilder().setBytesList(bytes));
+        }
         return builder.build();
     }
 
-    private List<String> padAndTruncate(List<String> chars) {
+    /**
+     * Fill a buffer of length {@link #maxLength} with start padding, the characters of a word, end padding, then any remaining
+     * padding, truncating the result to the buffer length.
+     */
+    private void padAndTruncate(String word, ByteString[] buffer) {
+        int size = 0;
         // add start padding
-        List<String> result = new ArrayList<>(nCopies(leftPadding, startWord));
+        for (int i = 0; i < leftPadding && size < buffer.length; ++i) {
+            buffer[size++] = startBytes;
+        }
         // add characters
-        result.addAll(chars);
+        for (int offset = 0; offset < word.length() && size < buffer.length; ) {
+            int codePoint = word.codePointAt(offset);
+            buffer[size++] = characterBytes(codePoint);
+            offset += Character.charCount(codePoint);
+        }
         // add end padding
-        result.addAll(nCopies(rightPadding, endWord));
-
-        // trim or pad resulting sequence
-        if (result.size() < maxLength) {
-            result.addAll(nCopies(maxLength - result.size(), padWord));
-        } else {
-            result = result.subList(0, maxLength);
+        for (int i = 0; i < rightPadding && size < buffer.length; ++i) {
+            buffer[size++] = endBytes;
+        }
+        // pad resulting sequence
+        while (size < buffer.length) {
+            buffer[size++] = padBytes;
         }
-        return result;
     }
 
-    private List<String> mapToChars(String original) {
-        original = super.map(original);
-
-        List<String> characters = new ArrayList<>();
-        for (char c : original.toCharArray()) {
-            characters.add(String.valueOf(c));
+    private static ByteString characterBytes(int codePoint) {
+        if (codePoint < ASCII.length) {
+            return ASCII[codePoint];
+        }
+        byte[] bytes;
+        if (codePoint < 0x800) {
+            bytes = new byte[]{(byte) (0xc0 | codePoint >> 6), (byte) (0x80 | codePoint & 0x3f)};
+        } else if (codePoint < 0x10000) {
+            if (Character.isSurrogate((char) codePoint)) {
+                // unpaired surrogate, encoded as by String#getBytes
+                return ASCII['?'];
+            }
+            bytes = new byte[]{(byte) (0xe0 | codePoint >> 12), (byte) (0x80 | codePoint >> 6 & 0x3f),
+                    (byte) (0x80 | codePoint & 0x3f)};
+        } else {
+            bytes = new byte[]{(byte) (0xf0 | codePoint >> 18), (byte) (0x80 | codePoint >> 12 & 0x3f),
+                    (byte) (0x80 | codePoint >> 6 & 0x3f), (byte) (0x80 | codePoint & 0x3f)};
         }
+        // wrap the array without copying it, as it is not referenced elsewhere
+        return UnsafeByteOperations.unsafeWrap(bytes);
+    }
 
-        return characters;
+    private static ByteString utf8(String text) {
+        return null == text ? null : ByteString.copyFromUtf8(text);
     }
 
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.extractor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.github.semlink.tensor.DenseExample;
+import io.github.semlink.type.HasFields;
+import lombok.NonNull;
+
+/**
+ * Extractor producing primitive int64 features that can be fed to a model directly as dense tensors.
+ *
+ * @author jgung
+ */
+public interface DenseSequenceExtractor {
+
+    /**
+     * Extract dense int64 features for input to a TF saved model.
+     *
+     * @param sequence input sequence
+     * @return dense features
+     */
+    DenseExample extractDense(@NonNull HasFields sequence);
+
+    /**
+     * Extract dense int64 features for a batch of inputs. Implementations may override this to share work between inputs.
+     *
+     * @param sequences input sequences
+     * @return dense features, in input order
+     */
+    default List<DenseExample> extractDense(@NonNull List<HasFields> sequences) {
+        return sequences.stream()
+                .map(this::extractDense)
+                .collect(Collectors.toList());
+    }
+
+}
@@ -18,7 +18,9 @@ package io.github.semlink.extractor;
 
 import org.tensorflow.example.SequenceExample;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import io.github.semlink.type.HasFields;
 import lombok.NonNull;
@@ -38,6 +40,19 @@ public interface SequenceExampleExtractor {
      */
     SequenceExample extractSequence(@NonNull HasFields sequence);
 
+    /**
+     * Extract sequence examples for a batch of inputs. Implementations may override this to share work between inputs, such as
+     * multiple predicates of the same sentence.
+     *
+     * @param sequences input sequences
+     * @return TF sequence example protos, in input order
+     */
+    default List<SequenceExample> extractSequences(@NonNull List<HasFields> sequences) {
+        return sequences.stream()
+                .map(this::extractSequence)
+                .collect(Collectors.toList());
+    }
+
     Optional<Vocabulary> vocabulary(@NonNull String key);
 
 }
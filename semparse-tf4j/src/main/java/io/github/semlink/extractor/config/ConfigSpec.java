@@ -42,6 +42,7 @@ public class ConfigSpec {
     private static ObjectMapper OM = new ObjectMapper();
 
     private ExtractorSpec features;
+    private FeedSpec feed = new FeedSpec();
 
     public static ConfigSpec fromInputStream(InputStream inputStream) {
         try {
@@ -22,11 +22,11 @@ import org.tensorflow.example.FeatureList;
 
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import io.github.semlink.extractor.CharacterFeatureExtractor;
 import io.github.semlink.extractor.ConstantFeatureExtractor;
@@ -73,9 +73,10 @@ public final class Extractors {
                                         String vocabPath) {
         for (FeatureSpec feature : features) {
 
-            List<Function<String, String>> stringFunctions = feature.mappingFuncs().stream()
-                    .map(Extractors::getStringFunction)
-                    .collect(Collectors.toList());
+            // compile mapping functions into a single pass, skipping them entirely if they have no effect
+            StringMappingFunction mappingFunction = StringMappingFunction.compile(feature.mappingFuncs());
+            List<Function<String, String>> stringFunctions = mappingFunction.isIdentity()
+                    ? new ArrayList<>() : Collections.singletonList(mappingFunction);
 
             if (feature.name().equals("elmo")) {
                 featureListExtractors.add(new TextExtractor(feature.name(), feature.key())
@@ -105,17 +106,4 @@ public final class Extractors {
             }
         }
     }
-
-    private static Function<String, String> getStringFunction(String functionName) {
-        switch (functionName) {
-            case "chars":
-                return Function.identity();
-            case "lower":
-                return String::toLowerCase;
-            case "digit_norm":
-                return s -> s.replaceAll("\\d", "#");
-            default:
-                throw new IllegalArgumentException("Unrecognized string function name: " + functionName);
-        }
-    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.extractor.config;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * JSON-serializable configuration of how inputs are fed to a saved model.
+ *
+ * @author jgung
+ */
+@Getter
+@Setter
+@Accessors(fluent = true)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+public class FeedSpec {
+
+    private static final String FEED_KEY = "feed";
+    private static ObjectMapper OM = new ObjectMapper();
+
+    public enum FeedMode {
+        /** serialized {@link org.tensorflow.example.SequenceExample} protos fed to a single string input. */
+        @JsonProperty("example")
+        EXAMPLE,
+        /** dense int64 tensors fed directly to named placeholders. */
+        @JsonProperty("dense")
+        DENSE
+    }
+
+    /** strategy used to feed inputs to the model. */
+    private FeedMode mode = FeedMode.EXAMPLE;
+
+    /** name of serialized example input op, used in {@link FeedMode#EXAMPLE} mode. */
+    private String input = "input_example_tensor";
+
+    /** mapping from feature names to placeholder op names, used in {@link FeedMode#DENSE} mode. */
+    private Map<String, String> placeholders = new LinkedHashMap<>();
+
+    /** name of predicted labels op. */
+    private String fetch = "gold/labels";
+
+    /**
+     * Read only the feed configuration from a model configuration file, ignoring any other configuration.
+     *
+     * @param inputStream configuration file input stream
+     * @return feed configuration, or default configuration if none is specified
+     */
+    public static FeedSpec fromConfigInputStream(InputStream inputStream) {
+        try {
+            JsonNode feed = OM.readTree(inputStream).get(FEED_KEY);
+            if (feed == null || feed.isNull()) {
+                return new FeedSpec();
+            }
+            return OM.treeToValue(feed, FeedSpec.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read configuration file", e);
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.extractor.config;
+
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.NonNull;
+
+/**
+ * A list of string mapping functions (as given by {@link FeatureSpec#mappingFuncs()}) compiled into a single pass over the
+ * characters of each input. Supported functions are "chars" (identity), "lower" (lowercasing), and "digit_norm" (replacing
+ * ASCII digits with '#'). These commute, so the result does not depend on the order they are listed in.
+ *
+ * @author jgung
+ */
+public final class StringMappingFunction implements Function<String, String> {
+
+    private static final String ASCII_UPPER = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String ASCII_LOWER = "abcdefghijklmnopqrstuvwxyz";
+
+    private final boolean lower;
+    private final boolean digitNorm;
+    /**
+     * Whether lowercasing in the default locale maps ASCII to ASCII as usual, which does not hold e.g. for Turkish.
+     */
+    private final boolean asciiLower;
+
+    private StringMappingFunction(boolean lower, boolean digitNorm) {
+        this.lower = lower;
+        this.digitNorm = digitNorm;
+        this.asciiLower = ASCII_UPPER.toLowerCase().equals(ASCII_LOWER);
+    }
+
+    /**
+     * Compile a list of mapping function names into a single function.
+     *
+     * @param functionNames mapping function names
+     * @return compiled mapping function
+     * @throws IllegalArgumentException if a function name is not recognized
+     */
+    public static StringMappingFunction compile(@NonNull List<String> functionNames) {
+        boolean lower = false;
+        boolean digitNorm = false;
+        for (String functionName : functionNames) {
+            switch (functionName) {
+                case "chars":
+                    break;
+                case "lower":
+                    lower = true;
+                    break;
+                case "digit_norm":
+                    digitNorm = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unrecognized string function name: " + functionName);
+            }
+        }
+        return new StringMappingFunction(lower, digitNorm);
+    }
+
+    /**
+     * Returns true if this function leaves every input unchanged.
+     */
+    public boolean isIdentity() {
+        return !lower && !digitNorm;
+    }
+
+    @Override
+    public String apply(@NonNull String input) {
+        if (isIdentity()) {
+            return input;
+        }
+        if (lower && !(asciiLower && isAscii(input))) {
+            // locale-sensitive lowercasing may change string length, so fall back to the JDK before normalizing digits
+            input = input.toLowerCase();
+            return digitNorm ? normalizeDigits(input) : input;
+        }
+
+        char[] chars = null;
+        for (int i = 0; i < input.length(); ++i) {
+            char c = input.charAt(i);
+            char mapped = c;
+            if (digitNorm && c >= '0' && c <= '9') {
+                mapped = '#';
+            } else if (lower && c >= 'A' && c <= 'Z') {
+                mapped = (char) (c + ('a' - 'A'));
+            }
+            if (mapped != c) {
+                if (chars == null) {
+                    chars = input.toCharArray();
+                }
+                chars[i] = mapped;
+            }
+        }
+        return chars == null ? input : new String(chars);
+    }
+
+    private static String normalizeDigits(String input) {
+        char[] chars = null;
+        for (int i = 0; i < input.length(); ++i) {
+            char c = input.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (chars == null) {
+                    chars = input.toCharArray();
+                }
+                chars[i] = '#';
+            }
+        }
+        return chars == null ? input : new String(chars);
+    }
+
+    private static boolean isAscii(String input) {
+        for (int i = 0; i < input.length(); ++i) {
+            if (input.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.tensor;
+
+import org.tensorflow.example.Features;
+import org.tensorflow.example.FeatureLists;
+import org.tensorflow.example.SequenceExample;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+
+import static io.github.semlink.tensor.TensorflowFeatureUtils.int64Feature;
+import static io.github.semlink.tensor.TensorflowFeatureUtils.int64Features;
+
+/**
+ * Primitive int64 features for a single input sequence, usable either as a dense model input or converted to a
+ * {@link SequenceExample}.
+ *
+ * @author jgung
+ */
+@Getter
+@Accessors(fluent = true)
+public class DenseExample {
+
+    private final Map<String, long[]> sequenceFeatures = new LinkedHashMap<>();
+    private final Map<String, Long> contextFeatures = new LinkedHashMap<>();
+
+    public DenseExample addSequence(@NonNull String key, @NonNull long[] values) {
+        sequenceFeatures.put(key, values);
+        return this;
+    }
+
+    public DenseExample addContext(@NonNull String key, long value) {
+        contextFeatures.put(key, value);
+        return this;
+    }
+
+    /**
+     * Returns the length of the longest sequence feature.
+     */
+    public int length() {
+        int length = 0;
+        for (long[] values : sequenceFeatures.values()) {
+            length = Math.max(length, values.length);
+        }
+        return length;
+    }
+
+    /**
+     * Convert to an equivalent {@link SequenceExample}, with sequence features as feature lists and scalar features as context.
+     */
+    public SequenceExample toSequenceExample() {
+        FeatureLists.Builder featureLists = FeatureLists.newBuilder();
+        sequenceFeatures.forEach((key, values) -> featureLists.putFeatureList(key, int64Features(values)));
+        Features.Builder features = Features.newBuilder();
+        contextFeatures.forEach((key, value) -> features.putFeature(key, int64Feature(value)));
+        return SequenceExample.newBuilder()
+                .setContext(features)
+                .setFeatureLists(featureLists)
+                .build();
+    }
+
+    /**
+     * Serialize directly to the {@link SequenceExample} wire format, equivalent to {@code toSequenceExample().toByteArray()}.
+     */
+    public byte[] toByteArray() {
+        return SequenceExampleWriter.toByteArray(this);
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.tensor;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import org.tensorflow.example.SequenceExample;
+
+import java.io.IOException;
+import java.util.Map;
+
+import lombok.NonNull;
+
+/**
+ * Writes {@link DenseExample DenseExamples} directly to the {@link SequenceExample} wire format, without building intermediate
+ * {@code Feature}, {@code Int64List}, or {@code FeatureList} messages. The output is byte-for-byte identical to serializing the
+ * result of {@link DenseExample#toSequenceExample()}, so it can be parsed by the model's existing parsing spec.
+ *
+ * @author jgung
+ */
+public final class SequenceExampleWriter {
+
+    // SequenceExample
+    private static final int CONTEXT_FIELD = 1;
+    private static final int FEATURE_LISTS_FIELD = 2;
+    // Features and FeatureLists, each consisting of a single map field
+    private static final int MAP_FIELD = 1;
+    private static final int MAP_KEY_FIELD = 1;
+    private static final int MAP_VALUE_FIELD = 2;
+    // FeatureList
+    private static final int FEATURE_FIELD = 1;
+    // Feature
+    private static final int INT64_LIST_FIELD = 3;
+    // Int64List, packed
+    private static final int VALUE_FIELD = 1;
+
+    /**
+     * Serialize a dense example as a {@link SequenceExample}, with sequence features as feature lists and scalar features as
+     * context.
+     *
+     * @param example dense example
+     * @return serialized sequence example
+     */
+    public static byte[] toByteArray(@NonNull DenseExample example) {
+        int contextSize = 0;
+        for (Map.Entry<String, Long> feature : example.contextFeatures().entrySet()) {
+            contextSize += delimitedSize(MAP_FIELD, entrySize(feature.getKey(), featureSize(feature.getValue())));
+        }
+        int[] featureListSizes = new int[example.sequenceFeatures().size()];
+        int featureListsSize = 0;
+        int index = 0;
+        for (Map.Entry<String, long[]> featureList : example.sequenceFeatures().entrySet()) {
+            featureListSizes[index] = featureListSize(featureList.getValue());
+            featureListsSize += delimitedSize(MAP_FIELD, entrySize(featureList.getKey(), featureListSizes[index++]));
+        }
+
+        byte[] result = new byte[delimitedSize(CONTEXT_FIELD, contextSize) + delimitedSize(FEATURE_LISTS_FIELD, featureListsSize)];
+        CodedOutputStream out = CodedOutputStream.newInstance(result);
+        try {
+            writeDelimited(out, CONTEXT_FIELD, contextSize);
+            for (Map.Entry<String, Long> feature : example.contextFeatures().entrySet()) {
+                int featureSize = featureSize(feature.getValue());
+                writeDelimited(out, MAP_FIELD, entrySize(feature.getKey(), featureSize));
+                out.writeString(MAP_KEY_FIELD, feature.getKey());
+                writeDelimited(out, MAP_VALUE_FIELD, featureSize);
+                writeFeature(out, feature.getValue());
+            }
+
+            writeDelimited(out, FEATURE_LISTS_FIELD, featureListsSize);
+            index = 0;
+            for (Map.Entry<String, long[]> featureList : example.sequenceFeatures().entrySet()) {
+                int featureListSize = featureListSizes[index++];
+                writeDelimited(out, MAP_FIELD, entrySize(featureList.getKey(), featureListSize));
+                out.writeString(MAP_KEY_FIELD, featureList.getKey());
+                writeDelimited(out, MAP_VALUE_FIELD, featureListSize);
+                for (long value : featureList.getValue()) {
+                    writeDelimited(out, FEATURE_FIELD, featureSize(value));
+                    writeFeature(out, value);
+                }
+            }
+            out.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to serialize sequence example", e);
+        }
+        return result;
+    }
+
+    private static void writeFeature(CodedOutputStream out, long value) throws IOException {
+        int valueSize = CodedOutputStream.computeInt64SizeNoTag(value);
+        writeDelimited(out, INT64_LIST_FIELD, delimitedSize(VALUE_FIELD, valueSize));
+        writeDelimited(out, VALUE_FIELD, valueSize);
+        out.writeInt64NoTag(value);
+    }
+
+    private static void writeDelimited(CodedOutputStream out, int field, int size) throws IOException {
+        out.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(size);
+    }
+
+    private static int featureListSize(long[] values) {
+        int size = 0;
+        for (long value : values) {
+            size += delimitedSize(FEATURE_FIELD, featureSize(value));
+        }
+        return size;
+    }
+
+    private static int featureSize(long value) {
+        return delimitedSize(INT64_LIST_FIELD, delimitedSize(VALUE_FIELD, CodedOutputStream.computeInt64SizeNoTag(value)));
+    }
+
+    private static int entrySize(String key, int valueSize) {
+        return CodedOutputStream.computeStringSize(MAP_KEY_FIELD, key) + delimitedSize(MAP_VALUE_FIELD, valueSize);
+    }
+
+    private static int delimitedSize(int field, int size) {
+        return CodedOutputStream.computeTagSize(field) + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+    }
+
+}
@@ -27,6 +27,20 @@ public final class TensorflowFeatureUtils {
             .build();
     }
 
+    public static Feature int64Feature(long feature) {
+        return Feature.newBuilder()
+            .setInt64List(Int64List.newBuilder().addValue(feature))
+            .build();
+    }
+
+    public static FeatureList int64Features(@NonNull long[] features) {
+        FeatureList.Builder builder = FeatureList.newBuilder();
+        for (long val : features) {
+            builder.addFeature(Feature.newBuilder().setInt64List(Int64List.newBuilder().addValue(val)));
+        }
+        return builder.build();
+    }
+
     public static FeatureList int64Features(@NonNull List<Integer> features) {
         FeatureList.Builder builder = FeatureList.newBuilder();
         features.stream()
@@ -17,12 +17,16 @@
 package io.github.semlink.tensor;
 
 import org.tensorflow.Tensor;
+import org.tensorflow.example.Feature;
+import org.tensorflow.example.FeatureList;
 import org.tensorflow.example.SequenceExample;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import lombok.NonNull;
 
@@ -57,6 +61,50 @@ public final class Tensors {
         return batch;
     }
 
+    /**
+     * Return the length of a {@link SequenceExample}, read from the first int64 context feature found for the given keys. If
+     * none of the keys are present, fall back to the length of the longest feature list.
+     *
+     * @param example    sequence example
+     * @param lengthKeys context feature keys holding sequence lengths, in order of preference
+     * @return sequence length
+     */
+    public static int sequenceLength(@NonNull SequenceExample example, @NonNull List<String> lengthKeys) {
+        Map<String, Feature> context = example.getContext().getFeatureMap();
+        for (String key : lengthKeys) {
+            Feature feature = context.get(key);
+            if (feature != null && feature.getInt64List().getValueCount() > 0) {
+                return (int) feature.getInt64List().getValue(0);
+            }
+        }
+        int length = 0;
+        for (FeatureList featureList : example.getFeatureLists().getFeatureListMap().values()) {
+            length = Math.max(length, featureList.getFeatureCount());
+        }
+        return length;
+    }
+
+    /**
+     * Group the indices of a batch of sequence lengths by length bucket. Bucket {@code i} contains the sequences whose length
+     * is at most {@code boundaries[i]} (and greater than {@code boundaries[i - 1]}), with a final bucket for longer sequences.
+     * Buckets are returned in order of first occurrence, and indices within each bucket keep their original order.
+     *
+     * @param lengths    sequence lengths
+     * @param boundaries ascending bucket boundaries, no bucketing is performed if empty
+     * @return lists of indices into the original batch, one per non-empty bucket
+     */
+    public static List<List<Integer>> bucketByLength(@NonNull int[] lengths, @NonNull int[] boundaries) {
+        Map<Integer, List<Integer>> buckets = new LinkedHashMap<>();
+        for (int index = 0; index < lengths.length; ++index) {
+            int bucket = 0;
+            while (bucket < boundaries.length && lengths[index] > boundaries[bucket]) {
+                ++bucket;
+            }
+            buckets.computeIfAbsent(bucket, b -> new ArrayList<>()).add(index);
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
     public static List<List<String>> toStringLists(@NonNull Tensor<?> tensor) {
         long[] shape = tensor.shape();
 
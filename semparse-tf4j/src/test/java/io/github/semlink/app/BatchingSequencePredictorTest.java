@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Batching sequence predictor test.
+ *
+ * @author jgung
+ */
+public class BatchingSequencePredictorTest {
+
+    private static class EchoPredictor implements SequencePredictor<String> {
+
+        private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public List<String> predict(String input) {
+            return predictBatch(Collections.singletonList(input)).get(0);
+        }
+
+        @Override
+        public List<List<String>> predictBatch(List<String> inputs) {
+            batchSizes.add(inputs.size());
+            return inputs.stream()
+                    .map(Collections::singletonList)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void predictBatch$RoutesResultsToCallers() {
+        EchoPredictor echo = new EchoPredictor();
+        try (BatchingSequencePredictor<String> predictor = new BatchingSequencePredictor<>(echo, 4, 50,
+                TimeUnit.MILLISECONDS)) {
+            List<CompletableFuture<List<List<String>>>> results = new ArrayList<>();
+            for (int i = 0; i < 5; ++i) {
+                List<String> inputs = Arrays.asList("a" + i, "b" + i);
+                results.add(CompletableFuture.supplyAsync(() -> predictor.predictBatch(inputs)));
+            }
+            for (int i = 0; i < results.size(); ++i) {
+                assertEquals(Arrays.asList(Collections.singletonList("a" + i), Collections.singletonList("b" + i)),
+                        results.get(i).join());
+            }
+        }
+        assertEquals(10, echo.batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(echo.batchSizes.stream().allMatch(size -> size <= 4));
+    }
+
+    @Test
+    public void submit$MaxWaitDispatchesPartialBatch() {
+        EchoPredictor echo = new EchoPredictor();
+        try (BatchingSequencePredictor<String> predictor = new BatchingSequencePredictor<>(echo, 32, 1,
+                TimeUnit.MILLISECONDS)) {
+            assertEquals(Collections.singletonList("single"), predictor.predict("single"));
+        }
+        assertEquals(Collections.singletonList(1), echo.batchSizes);
+    }
+
+    @Test
+    public void predictBatchAsync() {
+        EchoPredictor echo = new EchoPredictor();
+        try (BatchingSequencePredictor<String> predictor = new BatchingSequencePredictor<>(echo, 8, 1,
+                TimeUnit.MILLISECONDS)) {
+            CompletableFuture<List<List<String>>> result = predictor.predictBatchAsync(Arrays.asList("a", "b", "c"));
+            assertEquals(Arrays.asList(Collections.singletonList("a"), Collections.singletonList("b"),
+                    Collections.singletonList("c")), result.join());
+        }
+    }
+
+    @Test
+    public void close$FailsPendingInputs() throws InterruptedException {
+        EchoPredictor echo = new EchoPredictor();
+        List<CompletableFuture<List<String>>> results = new ArrayList<>();
+        BatchingSequencePredictor<String> predictor = new BatchingSequencePredictor<>(echo, 8, 1, TimeUnit.HOURS);
+        results.add(predictor.submit("taken"));
+        // give the dispatcher time to take the first input into a batch awaiting more inputs
+        Thread.sleep(50);
+        results.add(predictor.submit("queued"));
+        predictor.close();
+        for (CompletableFuture<List<String>> result : results) {
+            assertTrue(result.isCompletedExceptionally());
+            try {
+                result.join();
+                fail("Expected pending input to fail on close");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+        assertTrue(echo.batchSizes.isEmpty());
+        assertTrue(predictor.submit("closed").isCompletedExceptionally());
+    }
+
+    @Test
+    public void predictBatch$ErrorDoesNotStopDispatcher() {
+        EchoPredictor echo = new EchoPredictor() {
+            private boolean failed;
+
+            @Override
+            public List<List<String>> predictBatch(List<String> inputs) {
+                if (!failed) {
+                    failed = true;
+                    throw new AssertionError("native failure");
+                }
+                return super.predictBatch(inputs);
+            }
+        };
+        try (BatchingSequencePredictor<String> predictor = new BatchingSequencePredictor<>(echo, 1, 0,
+                TimeUnit.MILLISECONDS)) {
+            try {
+                predictor.predict("first");
+                fail("Expected prediction error");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof AssertionError);
+            }
+            assertEquals(Collections.singletonList("second"), predictor.predict("second"));
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import com.google.common.base.Preconditions;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Caching subword tokenizer unit tests.
+ *
+ * @author jgung
+ */
+public class CachingSubwordTokenizerTest {
+
+    private static Map<String, Integer> testVocabulary() {
+        Map<String, Integer> vocab = new HashMap<>();
+        Arrays.asList("[UNK]", "[CLS]", "[SEP]", "want", "##want", "##ed", "wa", "un", "runn", "##ing", ",")
+            .forEach(entry -> vocab.put(entry, vocab.size()));
+        return vocab;
+    }
+
+    @Test
+    public void tokenizeToIds() {
+        CachingSubwordTokenizer tokenizer = new CachingSubwordTokenizer(new WordPieceTokenizer(testVocabulary()));
+
+        assertArrayEquals(new int[]{7, 4, 5}, tokenizer.tokenizeToIds("unwanted"));
+        assertEquals(Arrays.asList("un", "##want", "##ed"), tokenizer.tokenize("unwanted"));
+        assertArrayEquals(new int[]{0}, tokenizer.tokenizeToIds("unwantedx"));
+
+        assertEquals(1, tokenizer.stats().hitCount());
+        assertEquals(2, tokenizer.stats().missCount());
+    }
+
+    @Test
+    public void tokenizeToIds$TokenizesOnce() {
+        CountingTokenizer counting = new CountingTokenizer();
+        CachingSubwordTokenizer tokenizer = new CachingSubwordTokenizer(counting);
+
+        assertArrayEquals(new int[]{0, 1}, tokenizer.tokenizeToIds("ab"));
+        assertEquals(Arrays.asList("a", "b"), tokenizer.tokenize("ab"));
+        assertArrayEquals(new int[]{0, 1}, tokenizer.tokenizeToIds("ab"));
+        assertEquals(1, counting.calls);
+    }
+
+    @Test
+    public void tokenize$MissingFromVocabulary() {
+        CachingSubwordTokenizer tokenizer = new CachingSubwordTokenizer(new CountingTokenizer());
+
+        assertEquals(Arrays.asList("a", "z"), tokenizer.tokenize("az"));
+        try {
+            tokenizer.tokenizeToIds("az");
+            fail("Expected missing token to fail ID lookup");
+        } catch (IllegalArgumentException e) {
+            // expected, as without the cache
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tokenize$RethrowsTokenizerFailure() {
+        new CachingSubwordTokenizer(new CountingTokenizer()).tokenize("");
+    }
+
+    /**
+     * Splits words into characters, counting calls to {@link #tokenize(String)}. Only "a" and "b" are in the vocabulary.
+     */
+    private static class CountingTokenizer implements SubwordTokenizer {
+
+        private final Map<String, Integer> vocab = new HashMap<>();
+        private int calls;
+
+        private CountingTokenizer() {
+            vocab.put("a", 0);
+            vocab.put("b", 1);
+        }
+
+        @Override
+        public List<Integer> convertTokensToIds(List<String> tokens) {
+            return tokens.stream()
+                    .map(vocab::get)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public List<String> tokenize(String text) {
+            Preconditions.checkArgument(!text.isEmpty(), "Empty word");
+            ++calls;
+            return text.chars()
+                    .mapToObj(c -> String.valueOf((char) c))
+                    .collect(Collectors.toList());
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import io.github.semlink.tensor.DenseExample;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Dense feed strategy test.
+ *
+ * @author jgung
+ */
+public class DenseFeedStrategyTest {
+
+    private static DenseExample example(long length, long... ids) {
+        return new DenseExample()
+                .addSequence("ids", ids)
+                .addContext("len", length);
+    }
+
+    @Test
+    public void batchFeature$PadsSequences() {
+        long[][] values = (long[][]) DenseFeedStrategy.batchFeature("ids", Arrays.asList(
+                example(2, 4, 5), example(3, 6, 7, 8), example(1, 9)));
+        assertArrayEquals(new long[][]{{4, 5, 0}, {6, 7, 8}, {9, 0, 0}}, values);
+    }
+
+    @Test
+    public void batchFeature$Context() {
+        long[] values = (long[]) DenseFeedStrategy.batchFeature("len", Arrays.asList(example(2, 4, 5), example(1, 9)));
+        assertArrayEquals(new long[]{2, 1}, values);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void batchFeature$MissingSequence() {
+        DenseFeedStrategy.batchFeature("ids", Arrays.asList(example(1, 9), new DenseExample().addContext("len", 1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void batchFeature$Unrecognized() {
+        DenseFeedStrategy.batchFeature("chars", Collections.singletonList(example(1, 9)));
+    }
+
+}
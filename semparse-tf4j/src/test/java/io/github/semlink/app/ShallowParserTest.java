@@ -0,0 +1,152 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.github.semlink.type.Fields;
+import io.github.semlink.type.HasFields;
+import io.github.semlink.type.IToken;
+import io.github.semlink.type.ITokenSequence;
+import io.github.semlink.type.Token;
+import io.github.semlink.type.TokenSequence;
+
+import static io.github.semlink.app.WindowingStrategy.WINDOW_END_KEY;
+import static io.github.semlink.app.WindowingStrategy.WINDOW_FOCUS_KEY;
+import static io.github.semlink.app.WindowingStrategy.WINDOW_START_KEY;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Shallow parser test.
+ *
+ * @author jgung
+ */
+public class ShallowParserTest {
+
+    private static final List<String> TAGS = Arrays.asList("B-A0", "I-A0", "O", "B-V", "O", "B-A1", "I-A1", "I-A1");
+
+    private static HasFields window(int start, int end) {
+        return new Fields()
+                .add(WINDOW_START_KEY, start)
+                .add(WINDOW_END_KEY, end);
+    }
+
+    private static HasFields window(int start, int end, int focus) {
+        return new Fields()
+                .add(WINDOW_START_KEY, start)
+                .add(WINDOW_END_KEY, end)
+                .add(WINDOW_FOCUS_KEY, focus);
+    }
+
+    private static ITokenSequence sequence(int length) {
+        List<IToken> tokens = new ArrayList<>();
+        for (int i = 0; i < length; ++i) {
+            tokens.add(new Token("w" + i, i));
+        }
+        return new TokenSequence(tokens);
+    }
+
+    /**
+     * Labels each window with its own slice of {@link #TAGS}, or all tags if the input is not windowed.
+     */
+    private static class SlicePredictor implements SequencePredictor<HasFields> {
+
+        @Override
+        public List<String> predict(HasFields input) {
+            if (!input.hasFields(WINDOW_START_KEY)) {
+                return TAGS;
+            }
+            return TAGS.subList(input.field(WINDOW_START_KEY), input.field(WINDOW_END_KEY));
+        }
+
+        @Override
+        public List<List<String>> predictBatch(List<HasFields> inputs) {
+            return inputs.stream()
+                    .map(this::predict)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void stitch$MostCentralWindow() {
+        List<String> labels = ShallowParser.stitch(Arrays.asList(window(0, 4), window(2, 6), window(4, 8)), Arrays.asList(
+                Arrays.asList("a0", "a1", "a2", "a3"),
+                Arrays.asList("b2", "b3", "b4", "b5"),
+                Arrays.asList("c4", "c5", "c6", "c7")), 8);
+        assertEquals(Arrays.asList("a0", "a1", "a2", "b3", "b4", "c5", "c6", "c7"), labels);
+    }
+
+    @Test
+    public void stitch$Uncovered() {
+        List<String> labels = ShallowParser.stitch(Arrays.asList(window(0, 2), window(3, 4)), Arrays.asList(
+                Arrays.asList("a0", "a1"),
+                Collections.singletonList("b3")), 5);
+        assertEquals(Arrays.asList("a0", "a1", "O", "b3", "O"), labels);
+    }
+
+    @Test
+    public void stitch$IgnoresWindowWithoutFocus() {
+        // the second window is more central for tokens 3 and 4, but does not contain its predicate
+        List<String> labels = ShallowParser.stitch(Arrays.asList(window(0, 5, 1), window(2, 7, 1)), Arrays.asList(
+                Arrays.asList("B-A0", "B-V", "B-A1", "I-A1", "I-A1"),
+                Arrays.asList("B-A2", "O", "B-A3", "O", "B-A4")), 7);
+        assertEquals(Arrays.asList("B-A0", "B-V", "B-A1", "I-A1", "I-A1", "O", "O"), labels);
+    }
+
+    @Test
+    public void stitch$FocusWindowWinsTies() {
+        List<String> labels = ShallowParser.stitch(Arrays.asList(window(0, 3), window(0, 3, 1)), Arrays.asList(
+                Arrays.asList("B-A0", "O", "B-A1"),
+                Arrays.asList("B-A0", "B-V", "B-A1")), 3);
+        assertEquals(Arrays.asList("B-A0", "B-V", "B-A1"), labels);
+    }
+
+    @Test
+    public void stitch$RepairsSeams() {
+        // token 3 is taken from the second window, continuing a span that the first window did not start
+        List<String> labels = ShallowParser.stitch(Arrays.asList(window(0, 4, 2), window(2, 6, 2)), Arrays.asList(
+                Arrays.asList("O", "O", "B-V", "B-A1"),
+                Arrays.asList("B-V", "I-A2", "I-A2", "O")), 7);
+        assertEquals(Arrays.asList("O", "O", "B-V", "B-A2", "I-A2", "O", "O"), labels);
+        assertEquals(Arrays.asList(new Span<>("V", 2, 2), new Span<>("A2", 3, 4)), ShallowParserUtils.tags2Spans(labels));
+    }
+
+    @Test
+    public void shallowParseBatch$StitchesWindows() {
+        ShallowParser windowed = new ShallowParser(new SlicePredictor(), tokens -> new Fields(),
+                inputs -> inputs.stream()
+                        .map(input -> Arrays.asList(window(0, 4), window(2, 6), window(4, 8)))
+                        .collect(Collectors.toList()));
+        ShallowParser full = new ShallowParser(new SlicePredictor(), tokens -> new Fields());
+
+        List<ITokenSequence> sequences = Arrays.asList(sequence(8), sequence(8));
+        List<Chunking<String>> expected = full.shallowParseBatch(sequences);
+        List<Chunking<String>> chunkings = windowed.shallowParseBatch(sequences);
+        assertEquals(2, chunkings.size());
+        for (int i = 0; i < chunkings.size(); ++i) {
+            assertEquals(expected.get(i).spans(), chunkings.get(i).spans());
+        }
+        assertEquals(expected.get(0).spans(), windowed.shallowParseBatchAsync(sequences).join().get(0).spans());
+    }
+
+}
@@ -16,13 +16,19 @@
 
 package io.github.semlink.app;
 
+import com.google.common.primitives.Ints;
+
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -65,4 +71,55 @@ public class WordPieceTokenizerTest {
             tokenizer.convertTokensToIds(Arrays.asList("un", "##want", "##ed", "runn", "##ing")));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void tokenizeToIds() {
+        WordPieceTokenizer tokenizer = new WordPieceTokenizer(testVocabulary());
+        assertArrayEquals(new int[0], tokenizer.tokenizeToIds(""));
+        assertArrayEquals(new int[]{7, 4, 5, 10, 8, 9}, tokenizer.tokenizeToIds("unwanted , running"));
+        assertArrayEquals(new int[]{0, 8, 9}, tokenizer.tokenizeToIds("unwantedx running"));
+    }
+
+    @Test
+    public void tokenize$MatchesSubstringSearch() {
+        Map<String, Integer> vocab = WordPieceTokenizer.readVocabulary("wordpiece/bert-base.cased.txt");
+        WordPieceTokenizer tokenizer = new WordPieceTokenizer(vocab);
+        for (String word : Arrays.asList("unaffable", "Tokenization", "jumped", "##ing", "1984", "na\u00efve",
+            "Stra\u00dfe", "\u00e9t\u00e9", "supercalifragilisticexpialidocious", "xqzxqzxqz", "don't", "self-driving",
+            "\ud83d\ude00", "##", "[CLS]")) {
+            List<String> expected = substringSearch(vocab, word);
+            assertEquals(word, expected, tokenizer.tokenize(word));
+            assertEquals(word, expected.stream().map(vocab::get).collect(Collectors.toList()),
+                Ints.asList(tokenizer.tokenizeToIds(word)));
+        }
+    }
+
+    /**
+     * Reference implementation probing the vocabulary for every candidate substring.
+     */
+    private static List<String> substringSearch(Map<String, Integer> vocab, String token) {
+        List<String> subTokens = new ArrayList<>();
+        int start = 0;
+        while (start < token.length()) {
+            int end = token.length();
+            String curSubstr = null;
+            while (start < end) {
+                String substr = token.substring(start, end);
+                if (start > 0) {
+                    substr = "##" + substr;
+                }
+                if (vocab.containsKey(substr)) {
+                    curSubstr = substr;
+                    break;
+                }
+                end -= 1;
+            }
+            if (null == curSubstr) {
+                return Collections.singletonList("[UNK]");
+            }
+            subTokens.add(curSubstr);
+            start = end;
+        }
+        return subTokens;
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.extractor;
+
+import com.google.protobuf.ByteString;
+
+import org.junit.Test;
+import org.tensorflow.example.FeatureList;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.github.semlink.extractor.config.FeatureSpec;
+import io.github.semlink.type.Fields;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Character feature extractor test.
+ *
+ * @author jgung
+ */
+public class CharacterFeatureExtractorTest {
+
+    private static List<List<String>> extract(FeatureSpec spec, String... words) {
+        CharacterFeatureExtractor extractor = new CharacterFeatureExtractor(spec, new Vocabulary(new HashMap<>(), "<UNK>"));
+        FeatureList features = extractor.extract(new Fields().add("word", Arrays.asList(words)));
+        return features.getFeatureList().stream()
+                .map(feature -> feature.getBytesList().getValueList().stream()
+                        .map(ByteString::toStringUtf8)
+                        .collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void extract() {
+        FeatureSpec spec = new FeatureSpec().name("char").key("word").maxLen(5).leftPadding(1).rightPadding(1)
+                .padWord("<PAD>").leftPadWord("<S>").rightPadWord("</S>");
+        assertEquals(Arrays.asList(
+                Arrays.asList("<S>", "a", "b", "</S>", "<PAD>"),
+                Arrays.asList("<S>", "a", "b", "c", "d"),
+                Arrays.asList("<S>", "\u00e9", "\ud83d\ude00", "x", "</S>")
+        ), extract(spec, "ab", "abcdef", "\u00e9\ud83d\ude00x"));
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.extractor.config;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Feed configuration test.
+ *
+ * @author jgung
+ */
+public class FeedSpecTest {
+
+    private static FeedSpec read(String config) {
+        return FeedSpec.fromConfigInputStream(new ByteArrayInputStream(config.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void fromConfigInputStream$DefaultsToExample() {
+        FeedSpec spec = read("{\"features\": {}}");
+        assertEquals(FeedSpec.FeedMode.EXAMPLE, spec.mode());
+        assertEquals("input_example_tensor", spec.input());
+        assertEquals("gold/labels", spec.fetch());
+        assertTrue(spec.placeholders().isEmpty());
+    }
+
+    @Test
+    public void fromConfigInputStream$Dense() {
+        FeedSpec spec = read("{\"feed\": {\"mode\": \"dense\", \"placeholders\": {\"ids\": \"input_ids\"}, "
+                + "\"fetch\": \"labels\", \"unknown\": 1}}");
+        assertEquals(FeedSpec.FeedMode.DENSE, spec.mode());
+        assertEquals(Collections.singletonMap("ids", "input_ids"), spec.placeholders());
+        assertEquals("labels", spec.fetch());
+        assertEquals("input_example_tensor", spec.input());
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.extractor.config;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * String mapping function test.
+ *
+ * @author jgung
+ */
+public class StringMappingFunctionTest {
+
+    private static final List<String> INPUTS = Arrays.asList("", "the", "The", "1984", "Route-66", "A1B2c3",
+            "na\u00efve", "\u00c9COLE", "\u0130stanbul", "\u0661\u0662", "\ud83d\ude00X9");
+
+    @Test
+    public void apply$MatchesSequentialFunctions() {
+        for (List<String> functions : Arrays.asList(
+                Arrays.asList("lower"),
+                Arrays.asList("digit_norm"),
+                Arrays.asList("lower", "digit_norm"),
+                Arrays.asList("digit_norm", "chars", "lower"))) {
+            StringMappingFunction function = StringMappingFunction.compile(functions);
+            for (String input : INPUTS) {
+                String expected = input;
+                for (String name : functions) {
+                    if (name.equals("lower")) {
+                        expected = expected.toLowerCase();
+                    } else if (name.equals("digit_norm")) {
+                        expected = expected.replaceAll("\\d", "#");
+                    }
+                }
+                assertEquals(functions + " " + input, expected, function.apply(input));
+            }
+        }
+    }
+
+    @Test
+    public void apply$Identity() {
+        StringMappingFunction function = StringMappingFunction.compile(Collections.singletonList("chars"));
+        assertTrue(function.isIdentity());
+        assertSame(INPUTS.get(2), function.apply(INPUTS.get(2)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compile$Unrecognized() {
+        StringMappingFunction.compile(Collections.singletonList("upper"));
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.tensor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Sequence example writer test.
+ *
+ * @author jgung
+ */
+public class SequenceExampleWriterTest {
+
+    @Test
+    public void toByteArray() {
+        DenseExample example = new DenseExample()
+                .addSequence("bert", new long[]{101, 1109, 28995, 102})
+                .addSequence("sequence_mask", new long[]{0, 1, 1, 0})
+                .addSequence("empty", new long[0])
+                .addContext("predicate_index", 1)
+                .addContext("negative", -1)
+                .addContext("large", Long.MAX_VALUE);
+        assertArrayEquals(example.toSequenceExample().toByteArray(), example.toByteArray());
+    }
+
+    @Test
+    public void toByteArray$Empty() {
+        DenseExample example = new DenseExample();
+        assertArrayEquals(example.toSequenceExample().toByteArray(), example.toByteArray());
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.tensor;
+
+import org.junit.Test;
+import org.tensorflow.example.Features;
+import org.tensorflow.example.SequenceExample;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static io.github.semlink.tensor.TensorflowFeatureUtils.int64Feature;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tensor utilities test.
+ *
+ * @author jgung
+ */
+public class TensorsTest {
+
+    private static final List<String> LENGTH_KEYS = Arrays.asList("bert_len", "len");
+
+    private static SequenceExample example(int length) {
+        return SequenceExample.newBuilder()
+                .setContext(Features.newBuilder().putFeature("bert_len", int64Feature(length)))
+                .build();
+    }
+
+    @Test
+    public void bucketByLength() {
+        List<List<Integer>> buckets = Tensors.bucketByLength(new int[]{80, 10, 12, 40, 9}, new int[]{16, 32, 64});
+        assertEquals(Arrays.asList(
+                Collections.singletonList(0),
+                Arrays.asList(1, 2, 4),
+                Collections.singletonList(3)
+        ), buckets);
+    }
+
+    @Test
+    public void bucketByLength$NoBoundaries() {
+        List<List<Integer>> buckets = Tensors.bucketByLength(new int[]{80, 10, 12}, new int[0]);
+        assertEquals(Collections.singletonList(Arrays.asList(0, 1, 2)), buckets);
+    }
+
+    @Test
+    public void sequenceLength() {
+        assertEquals(80, Tensors.sequenceLength(example(80), LENGTH_KEYS));
+        assertEquals(0, Tensors.sequenceLength(SequenceExample.getDefaultInstance(), LENGTH_KEYS));
+    }
+
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.semlink.app.api.model.SentenceModel;
+import io.github.semlink.parser.VerbNetParse;
+import io.github.semlink.parser.VerbNetParser;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Command-line corpus annotator, which parses large corpora with a {@link VerbNetParser} configured as in
+ * {@link PredictionConfiguration} and writes one JSON object per input sentence. Run from the repackaged jar with:
+ * <pre>
+ * java -Dloader.main=io.github.semlink.app.CorpusAnnotator -jar semparse-web.jar --input=corpus.txt --output=annotations \
+ *     [--format=text|jsonl] [--text-field=text] [--shard-size=10000] [--workers=4] [--batch-size=64] \
+ *     [--report-interval-s=30] [--verbnet.demo.srl-max-batch-size=64 ...]
+ * </pre>
+ * Inputs are either plain text with one sentence per line, or JSONL with the sentence in a given text field and an optional
+ * "id" field. The input is split into shards of consecutive lines, which are annotated by a pool of workers using
+ * {@link VerbNetParser#parseBatch(List)}. Each shard is written to a temporary file that is renamed to
+ * {@code shard-NNNNN.jsonl} once complete, followed by a {@code shard-NNNNN.done} checkpoint. A job restarted with the same input,
+ * shard size, format and (for JSONL inputs) text field skips shards that have already been checkpointed, and a job restarted with
+ * different settings is rejected rather than mixing annotations in one output directory.
+ *
+ * @author jgung
+ */
+@Slf4j
+@Setter
+@Accessors(fluent = true)
+public class CorpusAnnotator {
+
+    private static final String MANIFEST_FILE = "annotate.properties";
+
+    public enum Format {
+        TEXT, JSONL
+    }
+
+    private final VerbNetParser parser;
+    private final Path outputDir;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Input format, inferred from the input file extension if not set.
+     */
+    private Format format;
+    /**
+     * Field containing the sentence to parse for JSONL inputs.
+     */
+    private String textField = "text";
+    /**
+     * Number of input lines per shard.
+     */
+    private int shardSize = 10000;
+    /**
+     * Number of shards annotated in parallel.
+     */
+    private int workers = 1;
+    /**
+     * Number of sentences passed to the parser at once.
+     */
+    private int batchSize = 64;
+    /**
+     * Interval between progress reports, in seconds.
+     */
+    private long reportIntervalSeconds = 30;
+
+    private final AtomicLong sentences = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong shards = new AtomicLong();
+
+    public CorpusAnnotator(@NonNull VerbNetParser parser, @NonNull Path outputDir) {
+        this.parser = parser;
+        this.outputDir = outputDir;
+    }
+
+    /**
+     * Annotate a given input corpus, resuming from any shards already completed in the output directory.
+     *
+     * @param input input corpus path
+     */
+    public void annotate(@NonNull Path input) throws IOException {
+        Preconditions.checkArgument(shardSize > 0, "Shard size must be positive: %s", shardSize);
+        Preconditions.checkArgument(workers > 0, "Number of workers must be positive: %s", workers);
+        Preconditions.checkArgument(batchSize > 0, "Batch size must be positive: %s", batchSize);
+        Format format = this.format != null ? this.format
+                : input.toString().endsWith(".jsonl") ? Format.JSONL : Format.TEXT;
+
+        Files.createDirectories(outputDir);
+        checkManifest(input, format);
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers, new ThreadFactoryBuilder()
+                .setNameFormat("annotator-%d")
+                .build());
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("annotator-progress")
+                .setDaemon(true)
+                .build());
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        reporter.scheduleAtFixedRate(() -> report(stopwatch), reportIntervalSeconds, reportIntervalSeconds, TimeUnit.SECONDS);
+
+        // bound the number of shards held in memory to those being annotated plus one waiting per worker
+        Semaphore pending = new Semaphore(2 * workers);
+        List<Future<?>> futures = new ArrayList<>();
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            int shard = 0;
+            long firstLine = 1;
+            List<String> lines = new ArrayList<>(shardSize);
+            String line;
+            while (true) {
+                line = reader.readLine();
+                if (line != null) {
+                    lines.add(line);
+                }
+                if (lines.size() == shardSize || (line == null && !lines.isEmpty())) {
+                    if (Files.exists(shardPath(shard, ".done"))) {
+                        ++skipped;
+                    } else {
+                        pending.acquireUninterruptibly();
+                        int currentShard = shard;
+                        long currentFirstLine = firstLine;
+                        List<String> currentLines = lines;
+                        futures.add(executor.submit(() -> {
+                            try {
+                                annotateShard(currentShard, currentFirstLine, currentLines, format);
+                            } finally {
+                                pending.release();
+                            }
+                            return null;
+                        }));
+                    }
+                    firstLine += lines.size();
+                    lines = new ArrayList<>(shardSize);
+                    ++shard;
+                }
+                if (line == null) {
+                    break;
+                }
+            }
+            log.info("Read {} shards from {}, skipping {} completed shards", shard, input, skipped);
+
+            int failed = 0;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    log.error("Shard annotation failed", e.getCause());
+                    ++failed;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for shards", e);
+                }
+            }
+            Preconditions.checkState(failed == 0, "%s shards failed, rerun to resume", failed);
+        } finally {
+            executor.shutdownNow();
+            reporter.shutdownNow();
+            report(stopwatch);
+        }
+    }
+
+    private void annotateShard(int shard, long firstLine, List<String> lines, Format format) throws IOException {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        Path temp = shardPath(shard, ".jsonl.tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (int start = 0; start < lines.size(); start += batchSize) {
+                List<ObjectNode> records = new ArrayList<>();
+                List<String> texts = new ArrayList<>();
+                for (int i = start; i < Math.min(lines.size(), start + batchSize); ++i) {
+                    ObjectNode record = record(firstLine + i, lines.get(i), format);
+                    if (record != null) {
+                        records.add(record);
+                        if (!record.has("error")) {
+                            texts.add(record.get("text").asText());
+                        }
+                    }
+                }
+                annotate(records, texts);
+                for (ObjectNode record : records) {
+                    writer.write(objectMapper.writeValueAsString(record));
+                    writer.newLine();
+                }
+            }
+        }
+        Files.move(temp, shardPath(shard, ".jsonl"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.write(shardPath(shard, ".done"), String.format("lines=%d%nfirst-line=%d%n", lines.size(), firstLine)
+                .getBytes(StandardCharsets.UTF_8));
+        shards.incrementAndGet();
+        log.debug("Annotated shard {} ({} lines) in {}", shard, lines.size(), stopwatch);
+    }
+
+    /**
+     * Create an output record for a single input line, or null if the line is blank.
+     */
+    private ObjectNode record(long lineNumber, String line, Format format) {
+        if (line.trim().isEmpty()) {
+            return null;
+        }
+        ObjectNode record = objectMapper.createObjectNode().put("line", lineNumber);
+        if (format == Format.TEXT) {
+            return record.put("text", line);
+        }
+        try {
+            JsonNode input = objectMapper.readTree(line);
+            if (input.has("id")) {
+                record.set("id", input.get("id"));
+            }
+            JsonNode text = input.get(textField);
+            if (text == null || !text.isTextual()) {
+                return record.put("error", "Missing text field: " + textField);
+            }
+            return record.put("text", text.asText());
+        } catch (IOException e) {
+            return record.put("error", "Invalid JSON: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Annotate the records of a batch in place, falling back to parsing sentences one at a time to isolate failures.
+     */
+    private void annotate(List<ObjectNode> records, List<String> texts) {
+        List<VerbNetParse> parses = null;
+        try {
+            parses = parser.parseBatch(texts);
+        } catch (RuntimeException e) {
+            log.warn("Error while parsing batch of {} sentences, parsing individually", texts.size(), e);
+        }
+        int index = 0;
+        for (ObjectNode record : records) {
+            if (record.has("error")) {
+                errors.incrementAndGet();
+                continue;
+            }
+            try {
+                VerbNetParse parse = parses != null ? parses.get(index) : parser.parse(texts.get(index));
+                record.set("parse", objectMapper.valueToTree(new SentenceModel(parse)));
+                sentences.incrementAndGet();
+            } catch (RuntimeException e) {
+                record.put("error", String.valueOf(e.getMessage()));
+                errors.incrementAndGet();
+            }
+            ++index;
+        }
+    }
+
+    private void checkManifest(Path input, Format format) throws IOException {
+        Properties expected = new Properties();
+        expected.setProperty("input", input.toAbsolutePath().normalize().toString());
+        expected.setProperty("shard-size", Integer.toString(shardSize));
+        expected.setProperty("format", format.name());
+        if (format == Format.JSONL) {
+            expected.setProperty("text-field", textField);
+        }
+
+        Path manifest = outputDir.resolve(MANIFEST_FILE);
+        if (Files.exists(manifest)) {
+            Properties existing = new Properties();
+            try (InputStream in = Files.newInputStream(manifest)) {
+                existing.load(in);
+            }
+            Preconditions.checkState(existing.equals(expected),
+                    "Output directory %s was created for a different input, shard size, format or text field: %s", outputDir,
+                    existing);
+            log.info("Resuming annotation of {} in {}", input, outputDir);
+            return;
+        }
+        try (OutputStream out = Files.newOutputStream(manifest)) {
+            expected.store(out, "VerbNet corpus annotation");
+        }
+    }
+
+    private void report(Stopwatch stopwatch) {
+        long elapsed = Math.max(1, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        log.info("Annotated {} sentences ({} errors) in {} shards, {} sentences/s after {}", sentences.get(), errors.get(),
+                shards.get(), String.format("%.1f", sentences.get() * 1000.0 / elapsed), stopwatch);
+    }
+
+    private Path shardPath(int shard, String extension) {
+        return outputDir.resolve(String.format("shard-%05d%s", shard, extension));
+    }
+
+    public static void main(String[] args) throws IOException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PredictionConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run(args)) {
+            Environment environment = context.getEnvironment();
+            String format = environment.getProperty("format");
+            new CorpusAnnotator(context.getBean(VerbNetParser.class), Paths.get(environment.getRequiredProperty("output")))
+                    .format(format == null ? null : Format.valueOf(format.toUpperCase()))
+                    .textField(environment.getProperty("text-field", "text"))
+                    .shardSize(environment.getProperty("shard-size", Integer.class, 10000))
+                    .workers(environment.getProperty("workers", Integer.class, 1))
+                    .batchSize(environment.getProperty("batch-size", Integer.class, 64))
+                    .reportIntervalSeconds(environment.getProperty("report-interval-s", Long.class, 30L))
+                    .annotate(Paths.get(environment.getRequiredProperty("input")));
+        }
+    }
+
+}
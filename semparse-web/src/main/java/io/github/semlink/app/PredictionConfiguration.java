@@ -16,17 +16,23 @@
 
 package io.github.semlink.app;
 
+import com.google.common.base.Preconditions;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.ForkJoinPool;
+
 import io.github.clearwsd.parser.Nlp4jDependencyParser;
 import io.github.clearwsd.parser.NlpParser;
-import io.github.clearwsd.type.FeatureType;
+import io.github.semlink.parser.DefaultSemanticRoleLabeler;
 import io.github.semlink.parser.DefaultVnPredicateDetector;
 import io.github.semlink.parser.FilteredPredicateMapper;
 import io.github.semlink.parser.LightVerbMapper;
+import io.github.semlink.parser.RoleLabelerUtils;
+import io.github.semlink.parser.RuleBasedSrlPredictor;
 import io.github.semlink.parser.SemanticRoleLabeler;
 import io.github.semlink.parser.VerbNetParser;
 import io.github.semlink.parser.VerbNetSemParser;
@@ -39,7 +45,9 @@ import io.github.semlink.verbnet.VnIndex;
 
 import static io.github.semlink.app.util.JarExtractionUtil.resolveDirectory;
 import static io.github.semlink.app.util.JarExtractionUtil.resolveFile;
-import static io.github.semlink.parser.VerbNetParser.pbRoleLabeler;
+import static io.github.semlink.parser.DepNodeFilters.depEquals;
+import static io.github.semlink.parser.DepNodeFilters.posStartsWith;
+import static io.github.semlink.parser.RoleLabelerUtils.shallowSemanticParser;
 
 /**
  * Prediction configuration file.
@@ -57,6 +65,30 @@ public class PredictionConfiguration {
     private String wsdModel;
     @Value("${verbnet.demo.srl-model-path:propbank-srl}")
     private String srlModelDir;
+    @Value("${verbnet.demo.srl-max-batch-size:32}")
+    private int srlMaxBatchSize;
+    @Value("${verbnet.demo.srl-max-batch-wait-ms:5}")
+    private long srlMaxBatchWaitMs;
+    @Value("${verbnet.demo.srl-sessions:1}")
+    private int srlSessions;
+    @Value("${verbnet.demo.srl-intra-op-threads:0}")
+    private int srlIntraOpThreads;
+    @Value("${verbnet.demo.srl-inter-op-threads:0}")
+    private int srlInterOpThreads;
+    @Value("${verbnet.demo.srl-max-wordpieces:-1}")
+    private int srlMaxWordPieces;
+    @Value("${verbnet.demo.srl-stand-in:false}")
+    private boolean srlStandIn;
+    @Value("${verbnet.demo.srl-stand-in-latency-us:0}")
+    private long srlStandInLatencyMicros;
+    @Value("${verbnet.demo.srl-warm-up:true}")
+    private boolean srlWarmUp;
+    @Value("${verbnet.demo.align-branch-and-bound:false}")
+    private boolean alignBranchAndBound;
+    @Value("${verbnet.demo.align-parallel:false}")
+    private boolean alignParallel;
+    @Value("${verbnet.demo.align-parallel-threshold:16}")
+    private int alignParallelThreshold;
     @Value("${verbnet.demo.lvm-path:mappings/lvm.tsv}")
     private String lvmPath;
     @Value("${verbnet.demo.noun-mappings-path:mappings/nominal-mappings.tsv}")
@@ -84,24 +116,30 @@ public class PredictionConfiguration {
     public VerbNetParser verbNetSemanticParser(@Autowired VerbNetSenseClassifier verbNetSenseClassifier,
                                                @Autowired VnIndex verbNet) {
         String mappingsPath = resolveFile(this.mappingsPath);
-        String modelDir = resolveDirectory(this.srlModelDir);
         String lvmPath = resolveFile(this.lvmPath);
         String pbPath = resolveFile(this.pbPath);
         String nounsPath = resolveFile(this.nounsPath);
         String adjPath = resolveFile(this.adjectivesPath);
 
-        SemanticRoleLabeler<PropBankArg> roleLabeler = pbRoleLabeler(modelDir);
+        SemanticRoleLabeler<PropBankArg> roleLabeler = new DefaultSemanticRoleLabeler<>(srlParser(), PropBankArg::fromLabel);
 
-        VerbNetAligner aligner = VerbNetAligner.of(mappingsPath, pbPath);
+        // branch-and-bound search is sequential, and would silently take precedence over parallel alignment
+        Preconditions.checkArgument(!(alignBranchAndBound && alignParallel),
+                "Branch-and-bound and parallel alignment cannot both be enabled");
+        VerbNetAligner aligner = VerbNetAligner.of(mappingsPath, pbPath)
+                .branchAndBound(alignBranchAndBound);
+        if (alignParallel) {
+            aligner.alignmentPool(ForkJoinPool.commonPool())
+                    .parallelThreshold(alignParallelThreshold);
+        }
 
         LightVerbMapper mapper = LightVerbMapper.fromMappingsPath(lvmPath, verbNet);
         FilteredPredicateMapper nominalMapper = FilteredPredicateMapper.fromMappingsPath(nounsPath, verbNet,
-                child -> child.feature(FeatureType.Pos).toString().toUpperCase().startsWith("N")
-                        && !child.feature(FeatureType.Dep).toString().toUpperCase().equals("COMPOUND"));
+                posStartsWith("N").and(depEquals("COMPOUND").negate()));
 
 
         FilteredPredicateMapper adjectivalMapper = FilteredPredicateMapper.fromMappingsPath(adjPath, verbNet,
-                child -> child.feature(FeatureType.Pos).toString().toUpperCase().startsWith("JJ"));
+                posStartsWith("JJ"));
         VnPredicateDetector predicateDetector = new DefaultVnPredicateDetector(verbNetSenseClassifier, mapper,
                 nominalMapper,
                 adjectivalMapper);
@@ -111,4 +149,22 @@ public class PredictionConfiguration {
         return new VerbNetParser(predicateDetector, verbNetSenseClassifier, parser);
     }
 
+    private ShallowParser srlParser() {
+        if (srlStandIn) {
+            return shallowSemanticParser(new RuleBasedSrlPredictor().batchLatencyMicros(srlStandInLatencyMicros));
+        }
+
+        String modelDir = resolveDirectory(this.srlModelDir);
+        TensorflowModelOptions srlOptions = new TensorflowModelOptions()
+                .sessions(srlSessions)
+                .intraOpThreads(srlIntraOpThreads)
+                .interOpThreads(srlInterOpThreads);
+        ShallowParser shallowParser = shallowSemanticParser(modelDir, srlOptions, srlMaxBatchSize, srlMaxBatchWaitMs,
+                srlMaxWordPieces);
+        if (srlWarmUp) {
+            RoleLabelerUtils.warmUp(shallowParser);
+        }
+        return shallowParser;
+    }
+
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 James Gung
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.semlink.app;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.github.semlink.app.CorpusAnnotator.Format;
+import io.github.semlink.parser.VerbNetParse;
+import io.github.semlink.parser.VerbNetParser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Corpus annotator test, using a parser that only tokenizes sentences.
+ *
+ * @author jgung
+ */
+public class CorpusAnnotatorTest {
+
+    private final AtomicInteger parsed = new AtomicInteger();
+    private Path directory;
+    private Path output;
+
+    /**
+     * Parser producing a parse without predicates for each sentence, counting parsed sentences.
+     */
+    private final VerbNetParser parser = new VerbNetParser(null, null, null) {
+        @Override
+        public VerbNetParse parse(String sentence) {
+            parsed.incrementAndGet();
+            return new VerbNetParse().tokens(Arrays.asList(sentence.split(" ")));
+        }
+
+        @Override
+        public List<VerbNetParse> parseBatch(List<String> sentences) {
+            return sentences.stream()
+                    .map(this::parse)
+                    .collect(Collectors.toList());
+        }
+    };
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("annotator");
+        output = directory.resolve("output");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private Path input(String name, String... lines) throws IOException {
+        return Files.write(directory.resolve(name), Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+
+    private CorpusAnnotator annotator() {
+        return new CorpusAnnotator(parser, output)
+                .shardSize(2)
+                .reportIntervalSeconds(60);
+    }
+
+    @Test
+    public void annotate$ResumesCompletedShards() throws IOException {
+        Path input = input("corpus.txt", "a b", "c d", "e f", "g h", "i j");
+        annotator().annotate(input);
+        assertEquals(5, parsed.get());
+        for (int shard = 0; shard < 3; ++shard) {
+            assertTrue(Files.exists(output.resolve(String.format("shard-%05d.done", shard))));
+        }
+
+        // simulate a job that stopped before completing the second shard
+        Files.delete(output.resolve("shard-00001.done"));
+        Files.delete(output.resolve("shard-00001.jsonl"));
+        List<String> first = Files.readAllLines(output.resolve("shard-00000.jsonl"), StandardCharsets.UTF_8);
+
+        parsed.set(0);
+        annotator().workers(2).annotate(input);
+        assertEquals(2, parsed.get());
+        assertTrue(Files.exists(output.resolve("shard-00001.done")));
+        assertEquals(2, Files.readAllLines(output.resolve("shard-00001.jsonl"), StandardCharsets.UTF_8).size());
+        assertEquals(first, Files.readAllLines(output.resolve("shard-00000.jsonl"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void annotate$RejectsDifferentFormat() throws IOException {
+        Path input = input("corpus.txt", "{\"text\": \"a b\"}");
+        annotator().annotate(input);
+        assertMismatch(annotator().format(Format.JSONL), input);
+    }
+
+    @Test
+    public void annotate$RejectsDifferentTextField() throws IOException {
+        Path input = input("corpus.jsonl", "{\"text\": \"a b\", \"sentence\": \"c d\"}");
+        annotator().annotate(input);
+        assertMismatch(annotator().textField("sentence"), input);
+    }
+
+    private void assertMismatch(CorpusAnnotator annotator, Path input) throws IOException {
+        parsed.set(0);
+        try {
+            annotator.annotate(input);
+            fail("Expected annotation with different settings to be rejected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(0, parsed.get());
+        assertFalse(Files.exists(output.resolve("shard-00001.jsonl")));
+    }
+
+}